@@ -0,0 +1,285 @@
+package com.raz.algotoolbox.containers;
+
+import com.raz.algotoolbox.datatypes.hashtables.LinearProbingHashTable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A cache which holds at most a given number of entries, or entries up to a given total weight, and evicts entries
+ * to make room for new ones. The entries are kept in a {@link LinearProbingHashTable}, and every entry also takes a
+ * slot of an array which the eviction policy walks or samples, so no entry is linked to any other.
+ * <ul>
+ * <li>{@link EvictionPolicy#CLOCK}: a reading sets the referenced bit of an entry. A hand sweeps the array, clearing
+ * the bits it meets, and evicts the first entry whose bit is already clear.</li>
+ * <li>{@link EvictionPolicy#SAMPLED_LRU}: a reading stamps an entry with the time of the access. A few random slots
+ * are sampled and the least recently used entry among them is evicted.</li>
+ * </ul>
+ * Both {@link #get} and {@link #put} count as a use of an entry, but only {@link #get} updates the hit and miss
+ * counters.
+ * @param <K> is the type of the keys in the cache.
+ * @param <V> is the type of the values in the cache.
+ */
+public class BoundedCache<K, V> {
+
+	private static final int SAMPLE_SIZE = 5;
+	private static final int INITIAL_SLOTS = 16;
+	private static final int MAX_PRESIZED_CAPACITY = 1 << 20;
+
+	public enum EvictionPolicy {
+		CLOCK, SAMPLED_LRU
+	}
+
+	@FunctionalInterface
+	public interface Weigher<K, V> {
+
+		/**
+		 * @return the non negative weight of the entry.
+		 */
+		long weigh(K key, V value);
+	}
+
+	private final LinearProbingHashTable<K, Node<K, V>> table;
+	private final EvictionPolicy policy;
+	private final long maximumWeight;
+	private final Weigher<? super K, ? super V> weigher;
+	private final SplittableRandom random;
+	private Node<K, V>[] slots;
+	private int usedSlots;
+	private int[] freeSlots;
+	private int freeCount;
+	private int hand;
+	private long weight;
+	private long time;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * A cache of at most {@code maximumSize} entries. The table is sized for all of them up front, unless they are
+	 * very many, so that it does not resize while the cache fills up.
+	 */
+	public BoundedCache(int maximumSize, EvictionPolicy policy) {
+		this(maximumSize, policy, new SplittableRandom());
+	}
+
+	/**
+	 * Samples the entries to evict with the given generator, so that tests may seed it.
+	 */
+	BoundedCache(int maximumSize, EvictionPolicy policy, SplittableRandom random) {
+		this(maximumSize, (k, v) -> 1, policy, LinearProbingHashTable.Config.DEFAULT.withInitialCapacity(
+				(int) Math.max(1, Math.min(Math.ceil(maximumSize / 0.8), MAX_PRESIZED_CAPACITY))), random);
+	}
+
+	/**
+	 * A cache of entries whose weights sum up to at most {@code maximumWeight}. An entry which is heavier than that
+	 * is not cached at all.
+	 */
+	public BoundedCache(long maximumWeight, Weigher<? super K, ? super V> weigher, EvictionPolicy policy) {
+		this(maximumWeight, weigher, policy, LinearProbingHashTable.Config.DEFAULT, new SplittableRandom());
+	}
+
+	@SuppressWarnings("unchecked")
+	private BoundedCache(long maximumWeight, Weigher<? super K, ? super V> weigher, EvictionPolicy policy,
+			LinearProbingHashTable.Config config, SplittableRandom random) {
+		if (maximumWeight < 1) {
+			throw new IllegalArgumentException("Illegal maximum size or weight: " + maximumWeight);
+		}
+		this.maximumWeight = maximumWeight;
+		this.weigher = Objects.requireNonNull(weigher);
+		this.policy = Objects.requireNonNull(policy);
+		this.table = new LinearProbingHashTable<>(config);
+		this.random = Objects.requireNonNull(random);
+		slots = (Node<K, V>[]) new Node<?, ?>[INITIAL_SLOTS];
+		freeSlots = new int[INITIAL_SLOTS];
+	}
+
+	public int size() {
+		return table.size();
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @return the total weight of the cached entries, which is their number if no weigher was given.
+	 */
+	public long weight() {
+		return weight;
+	}
+
+	/**
+	 * Checks for the key without counting a hit or a miss, and without marking the entry as used.
+	 */
+	public boolean containsKey(Object key) {
+		return table.containsKey(key);
+	}
+
+	public V get(Object key) {
+		Node<K, V> node = table.get(key);
+		if (node == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		touch(node);
+		return node.value;
+	}
+
+	/**
+	 * Caches the entry, evicting other entries as needed.
+	 * @return the previous value of the key.
+	 */
+	public V put(K key, V value) {
+		long entryWeight = weigher.weigh(key, value);
+		if (entryWeight < 0) {
+			throw new IllegalArgumentException("Negative weight " + entryWeight + " for key " + key);
+		}
+		if (entryWeight > maximumWeight) {
+			return remove(key);
+		}
+		// the table is probed once, and the other entries are evicted only after the entry is in place
+		Node<K, V> node = table.computeIfAbsent(key, k -> new Node<>(k, value, entryWeight));
+		V oldValue = null;
+		if (node.slot < 0) {
+			node.lastAccess = ++time;
+			addToSlots(node);
+			weight += entryWeight;
+		} else {
+			oldValue = node.value;
+			node.value = value;
+			weight += entryWeight - node.weight;
+			node.weight = entryWeight;
+			touch(node);
+		}
+		while (weight > maximumWeight) {
+			evict(node);
+		}
+		return oldValue;
+	}
+
+	public V remove(Object key) {
+		Node<K, V> node = table.remove(key);
+		if (node == null) {
+			return null;
+		}
+		removeFromSlots(node);
+		return node.value;
+	}
+
+	/**
+	 * Removes all the entries. The counters are kept.
+	 */
+	@SuppressWarnings("unchecked")
+	public void clear() {
+		table.clear();
+		slots = (Node<K, V>[]) new Node<?, ?>[INITIAL_SLOTS];
+		freeSlots = new int[INITIAL_SLOTS];
+		usedSlots = 0;
+		freeCount = 0;
+		hand = 0;
+		weight = 0;
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	private void touch(Node<K, V> node) {
+		node.referenced = true;
+		node.lastAccess = ++time;
+	}
+
+	/**
+	 * Evicts one entry other than {@code keep}, which must not be the only entry of the cache.
+	 */
+	private void evict(Node<K, V> keep) {
+		Node<K, V> victim = policy == EvictionPolicy.CLOCK ? clockVictim(keep) : sampledVictim(keep);
+		table.remove(victim.key);
+		removeFromSlots(victim);
+		evictionCount++;
+	}
+
+	/**
+	 * Every entry met is given a second chance, so at most two sweeps are needed to find a victim.
+	 */
+	private Node<K, V> clockVictim(Node<K, V> keep) {
+		while (true) {
+			if (hand >= usedSlots) {
+				hand = 0;
+			}
+			Node<K, V> node = slots[hand++];
+			if (node != null && node != keep) {
+				if (!node.referenced) {
+					return node;
+				}
+				node.referenced = false;
+			}
+		}
+	}
+
+	private Node<K, V> sampledVictim(Node<K, V> keep) {
+		Node<K, V> victim = null;
+		for (int i = 0, found = 0; found < SAMPLE_SIZE && i < 4 * SAMPLE_SIZE; ++i) {
+			Node<K, V> node = slots[random.nextInt(usedSlots)];
+			if (node != null && node != keep) {
+				found++;
+				if (victim == null || node.lastAccess < victim.lastAccess) {
+					victim = node;
+				}
+			}
+		}
+		for (int i = 0; victim == null; ++i) { // the slots are sparse, fall back to the first entry
+			if (slots[i] != null && slots[i] != keep) {
+				victim = slots[i];
+			}
+		}
+		return victim;
+	}
+
+	private void addToSlots(Node<K, V> node) {
+		if (freeCount > 0) {
+			node.slot = freeSlots[--freeCount];
+		} else {
+			if (usedSlots == slots.length) {
+				slots = Arrays.copyOf(slots, slots.length << 1);
+				freeSlots = Arrays.copyOf(freeSlots, slots.length);
+			}
+			node.slot = usedSlots++;
+		}
+		slots[node.slot] = node;
+	}
+
+	private void removeFromSlots(Node<K, V> node) {
+		slots[node.slot] = null;
+		freeSlots[freeCount++] = node.slot;
+		weight -= node.weight;
+	}
+
+	private static final class Node<K, V> {
+
+		private final K key;
+		private V value;
+		private long weight;
+		private int slot = -1; // until the node takes a slot
+		private boolean referenced;
+		private long lastAccess;
+
+		private Node(K key, V value, long weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.raz.algotoolbox.containers;
+
+import com.raz.algotoolbox.datatypes.hashtables.ConcurrentLinearProbingHashTable;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The views of this map are backed by it, and their iterators are weakly consistent.
+ */
+public class ConcurrentHashMap<K, V> extends ConcurrentLinearProbingHashTable<K, V> implements ConcurrentMap<K, V> {
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		V value = get(key);
+		return value == null ? defaultValue : value;
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return new AbstractSet<K>() {
+
+			@Override
+			public Iterator<K> iterator() {
+				return keysIterator();
+			}
+
+			@Override
+			public int size() {
+				return ConcurrentHashMap.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				return ConcurrentHashMap.this.remove(o) != null;
+			}
+		};
+	}
+
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+
+			@Override
+			public Iterator<V> iterator() {
+				Iterator<Map.Entry<K, V>> entries = entriesIterator();
+				return new Iterator<V>() {
+
+					@Override
+					public boolean hasNext() {
+						return entries.hasNext();
+					}
+
+					@Override
+					public V next() {
+						return entries.next().getValue();
+					}
+
+					@Override
+					public void remove() {
+						entries.remove();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return ConcurrentHashMap.this.size();
+			}
+		};
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<Map.Entry<K, V>>() {
+
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator() {
+				return entriesIterator();
+			}
+
+			@Override
+			public int size() {
+				return ConcurrentHashMap.this.size();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				if (!(o instanceof Map.Entry)) {
+					return false;
+				}
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				Object value = entry.getKey() == null ? null : get(entry.getKey());
+				return value != null && value.equals(entry.getValue());
+			}
+
+			@Override
+			public boolean remove(Object o) {
+				if (!(o instanceof Map.Entry)) {
+					return false;
+				}
+				Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+				return ConcurrentHashMap.this.remove(entry.getKey(), entry.getValue());
+			}
+		};
+	}
+}
@@ -1,31 +1,328 @@
 package com.raz.algotoolbox.containers;
 
+import com.raz.algotoolbox.datatypes.hashtables.AdaptiveHashTable;
+import com.raz.algotoolbox.datatypes.hashtables.FrozenHashTable;
+import com.raz.algotoolbox.datatypes.hashtables.HashTable;
 import com.raz.algotoolbox.datatypes.hashtables.LinearProbingHashTable;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 
-public class HashMap<K, V> extends LinearProbingHashTable<K, V> implements Map<K, V> {
+/**
+ * A map backed by one of the hash tables of {@code datatypes.hashtables}. By default it is an
+ * {@link AdaptiveHashTable}, which keeps small maps inline and larger ones in a {@link LinearProbingHashTable}.
+ */
+public class HashMap<K, V> implements Map<K, V> {
 
+	private final HashTable<K, V> table;
+	private Set<K> keySet;
+	private Collection<V> values;
+	private Set<Map.Entry<K, V>> entrySet;
+
+	public HashMap() {
+		this(new AdaptiveHashTable<>());
+	}
+
+	/**
+	 * Creates a map backed by a {@link LinearProbingHashTable} of the given configuration, whatever its size.
+	 */
+	public HashMap(LinearProbingHashTable.Config config) {
+		this(new LinearProbingHashTable<>(config));
+	}
+
+	/**
+	 * @param table is the hash table which backs the map, usually empty, and which should not be used by anything else.
+	 */
+	public HashMap(HashTable<K, V> table) {
+		this.table = Objects.requireNonNull(table);
+	}
+
+	@Override
+	public int size() {
+		return table.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return table.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return table.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return table.containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		return table.get(key);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return table.put(key, value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return table.remove(key);
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		table.putAll(m);
+	}
+
+	@Override
+	public void clear() {
+		table.clear();
+	}
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		return table.getOrDefault(key, defaultValue);
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return table.putIfAbsent(key, value);
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		return table.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return table.computeIfPresent(key, remappingFunction);
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		return table.compute(key, remappingFunction);
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		return table.merge(key, value, remappingFunction);
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		table.forEach(action);
+	}
+
+	public Iterator<K> keysIterator() {
+		return table.keysIterator();
+	}
+
+	/**
+	 * @see HashTable#keySpliterator()
+	 */
+	public Spliterator<K> keySpliterator() {
+		return table.keySpliterator();
+	}
+
+	/**
+	 * @see HashTable#entrySpliterator()
+	 */
+	public Spliterator<Map.Entry<K, V>> entrySpliterator() {
+		return table.entrySpliterator();
+	}
+
+	/**
+	 * @see HashTable#parallelForEach(BiConsumer)
+	 */
+	public void parallelForEach(BiConsumer<? super K, ? super V> action) {
+		table.parallelForEach(action);
+	}
+
+	/**
+	 * @see HashTable#parallelReduce(BiFunction, BinaryOperator)
+	 */
+	public <U> U parallelReduce(BiFunction<? super K, ? super V, ? extends U> transformer, BinaryOperator<U> reducer) {
+		return table.parallelReduce(transformer, reducer);
+	}
+
+	/**
+	 * @see HashTable#parallelSearch(BiFunction)
+	 */
+	public <U> U parallelSearch(BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+		return table.parallelSearch(searchFunction);
+	}
+
+	/**
+	 * @return an immutable copy of the map, backed by a {@link FrozenHashTable} whose lookups read a single slot.
+	 */
+	public HashMap<K, V> freeze() {
+		return new HashMap<>(new FrozenHashTable<>(table));
+	}
+
+	/**
+	 * @return a live view of the keys, whose iterator supports removal.
+	 */
 	@Override
 	public Set<K> keySet() {
-		Set<K> set = new HashSet<>();
-		forEach((k, v) -> set.add(k));
-		return set;
+		if (keySet == null) {
+			keySet = new KeySet();
+		}
+		return keySet;
 	}
 
+	/**
+	 * @return a live view of the values, whose iterator supports removal.
+	 */
 	@Override
 	public Collection<V> values() {
-		Set<V> set = new HashSet<>();
-		forEach((k, v) -> set.add(v));
-		return set;
+		if (values == null) {
+			values = new Values();
+		}
+		return values;
 	}
 
+	/**
+	 * @return a live view of the entries, whose iterator supports removal. Setting the value of an entry writes
+	 * through to the map.
+	 */
 	@Override
 	public Set<Map.Entry<K, V>> entrySet() {
-		Set<Map.Entry<K, V>> set = new HashSet<>();
-		forEach(set::add);
-		return set;
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	private class KeySet extends AbstractSet<K> {
+
+		@Override
+		public int size() {
+			return table.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return table.containsKey(o);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!table.containsKey(o)) {
+				return false;
+			}
+			table.remove(o);
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			table.clear();
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			return table.keysIterator();
+		}
+
+		@Override
+		public Spliterator<K> spliterator() {
+			return table.keySpliterator();
+		}
+	}
+
+	private class Values extends AbstractCollection<V> {
+
+		@Override
+		public int size() {
+			return table.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return table.containsValue(o);
+		}
+
+		@Override
+		public void clear() {
+			table.clear();
+		}
+
+		@Override
+		public Iterator<V> iterator() {
+			Iterator<Map.Entry<K, V>> entries = table.entriesIterator();
+			return new Iterator<V>() {
+
+				@Override
+				public boolean hasNext() {
+					return entries.hasNext();
+				}
+
+				@Override
+				public V next() {
+					return entries.next().getValue();
+				}
+
+				@Override
+				public void remove() {
+					entries.remove();
+				}
+			};
+		}
+	}
+
+	private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+		@Override
+		public int size() {
+			return table.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			Object key = e.getKey();
+			return key != null && table.containsKey(key) && Objects.equals(table.get(key), e.getValue());
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			if (!contains(o)) {
+				return false;
+			}
+			table.remove(((Map.Entry<?, ?>) o).getKey());
+			return true;
+		}
+
+		@Override
+		public void clear() {
+			table.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return table.entriesIterator();
+		}
+
+		@Override
+		public Spliterator<Map.Entry<K, V>> spliterator() {
+			return table.entrySpliterator();
+		}
 	}
 }
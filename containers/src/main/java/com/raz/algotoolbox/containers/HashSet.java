@@ -1,34 +1,86 @@
 package com.raz.algotoolbox.containers;
 
-import com.raz.algotoolbox.internal.Procedure;
+import com.raz.algotoolbox.datatypes.hashtables.HashTable;
+import com.raz.algotoolbox.datatypes.hashtables.KeyTable;
+import com.raz.algotoolbox.datatypes.hashtables.LinearProbingKeyTable;
 
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-// TODO unit test
+/**
+ * A set backed by one of the key tables of {@code datatypes.hashtables}, a {@link LinearProbingKeyTable} unless
+ * another table is given.
+ */
 public class HashSet<T> implements Set<T> {
 
-	private final transient HashMap<T, Object> map = new HashMap<>();
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	private final transient KeyTable<T> keys;
+
+	public HashSet() {
+		this(new LinearProbingKeyTable<>());
+	}
+
+	/**
+	 * Creates a set which holds the given number of elements without resizing.
+	 */
+	public HashSet(int expectedSize) {
+		this(new LinearProbingKeyTable<>(expectedSize));
+	}
+
+	/**
+	 * @param table is the empty hash table which backs the set, and which should not be used by anything else.
+	 */
+	public HashSet(HashTable<T, Object> table) {
+		this(KeyTable.of(table));
+	}
+
+	/**
+	 * @param keys is the empty key table which backs the set, and which should not be used by anything else.
+	 */
+	public HashSet(KeyTable<T> keys) {
+		this.keys = keys;
+	}
 
 	@Override
 	public int size() {
-		return map.size();
+		return keys.size();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return map.isEmpty();
+		return keys.isEmpty();
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		return map.containsKey(o);
+		return keys.contains(o);
 	}
 
 	@Override
 	public Iterator<T> iterator() {
-		return map.keysIterator();
+		return keys.keysIterator();
+	}
+
+	/**
+	 * Splits the slots of the table when it supports it, so that parallel streams over the set divide its work evenly.
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return keys.keySpliterator();
+	}
+
+	/**
+	 * Walks the slots of the table directly, without an iterator.
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		keys.forEach(action);
 	}
 
 	@Override
@@ -66,19 +118,23 @@ public class HashSet<T> implements Set<T> {
 
 	@Override
 	public boolean add(T t) {
-		return mapChanged(() -> map.put(t, null));
+		return keys.add(t);
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		return mapChanged(() -> map.remove(o));
+		return keys.remove(o);
 	}
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
+		if (c instanceof HashSet && c.size() > size()) {
+			// distinct elements of a set of this class are unequal, which need not hold for identity or sorted sets
+			return false;
+		}
 		if (c != null) {
 			for (Object o : c) {
-				if (!map.containsKey(o)) {
+				if (!keys.contains(o)) {
 					return false;
 				}
 			}
@@ -88,39 +144,140 @@ public class HashSet<T> implements Set<T> {
 
 	@Override
 	public boolean addAll(Collection<? extends T> c) {
-		return c != null && mapChanged(() -> c.forEach(this::add));
+		boolean changed = false;
+		if (c != null) {
+			for (T t : c) {
+				changed |= keys.add(t);
+			}
+		}
+		return changed;
 	}
 
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		return mapChanged(() -> {
-			if (c == null) {
-				clear();
-			} else {
-				final Set<T> removeSet = new HashSet<>();
-				map.forEach((k, v) -> {
-					if (!c.contains(k)) {
-						removeSet.add(k);
-					}
-				});
-				removeSet.forEach(map::remove);
+		if (c == null) {
+			boolean changed = !isEmpty();
+			clear();
+			return changed;
+		}
+		boolean changed = false;
+		for (Iterator<T> it = keys.keysIterator(); it.hasNext(); ) {
+			if (!c.contains(it.next())) {
+				it.remove();
+				changed = true;
 			}
-		});
+		}
+		return changed;
 	}
 
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		return c != null && mapChanged(() -> c.forEach(map::remove));
+		if (c instanceof Set && c.size() > size()) {
+			return removeIf(c::contains);
+		}
+		boolean changed = false;
+		if (c != null) {
+			for (Object o : c) {
+				changed |= keys.remove(o);
+			}
+		}
+		return changed;
 	}
 
 	@Override
 	public void clear() {
-		map.clear();
+		keys.clear();
+	}
+
+	/*
+	 * The set algebra below walks the smaller operand and looks its elements up in the larger one, writing the result
+	 * into a set presized for its largest possible size. Operands which are HashSets are walked and probed through their
+	 * key tables directly, rather than through the Set interface. When the walked operand has at least PARALLEL_THRESHOLD elements, it is filtered by a parallel stream,
+	 * unless the common pool has a single thread, which only adds the overhead of splitting.
+	 */
+
+	/**
+	 * @return a new set of the elements of both sets.
+	 */
+	public HashSet<T> union(Set<? extends T> other) {
+		HashSet<T> result = new HashSet<>((int) Math.min((long) size() + other.size(), Integer.MAX_VALUE));
+		keys.forEach(result.keys::add);
+		if (other instanceof HashSet) {
+			((HashSet<? extends T>) other).keys.forEach(result.keys::add);
+		} else {
+			other.forEach(result::add);
+		}
+		return result;
+	}
+
+	/**
+	 * @return a new set of the elements of this set which are in the other set too.
+	 */
+	public HashSet<T> intersect(Set<? extends T> other) {
+		if (other.size() < size()) {
+			return filter(other, keys::contains, other.size());
+		}
+		return filter(this, membership(other), size());
 	}
 
-	private boolean mapChanged(Procedure p) {
-		int oldSize = size();
-		p.apply();
-		return size() != oldSize;
+	/**
+	 * @return a new set of the elements of this set which are not in the other set.
+	 */
+	public HashSet<T> difference(Set<?> other) {
+		if (other.size() < size()) {
+			HashSet<T> result = new HashSet<>(size());
+			keys.forEach(result.keys::add);
+			if (other instanceof HashSet) {
+				((HashSet<?>) other).keys.forEach(result.keys::remove);
+			} else {
+				other.forEach(result::remove);
+			}
+			return result;
+		}
+		return filter(this, membership(other).negate(), size());
+	}
+
+	/**
+	 * @return the number of elements of this set which are in the other set too, without building the intersection.
+	 */
+	public int intersectionSize(Set<?> other) {
+		Set<?> smaller = other.size() < size() ? other : this;
+		Set<?> larger = smaller == this ? other : this;
+		Predicate<Object> inLarger = membership(larger);
+		if (inParallel(smaller)) {
+			return (int) smaller.parallelStream().filter(inLarger).count();
+		}
+		int[] count = {0};
+		smaller.forEach(o -> {
+			if (inLarger.test(o)) {
+				count[0]++;
+			}
+		});
+		return count[0];
+	}
+
+	private static Predicate<Object> membership(Set<?> set) {
+		return set instanceof HashSet ? ((HashSet<?>) set).keys::contains : set::contains;
+	}
+
+	private static boolean inParallel(Set<?> walked) {
+		return walked.size() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> HashSet<T> filter(Set<? extends T> source, Predicate<Object> predicate, int maximumSize) {
+		HashSet<T> result = new HashSet<>(maximumSize);
+		if (inParallel(source)) {
+			for (Object o : source.parallelStream().filter(predicate).toArray()) {
+				result.add((T) o);
+			}
+			return result;
+		}
+		source.forEach(t -> {
+			if (predicate.test(t)) {
+				result.add(t);
+			}
+		});
+		return result;
 	}
 }
@@ -0,0 +1,105 @@
+package com.raz.algotoolbox.containers;
+
+import com.raz.algotoolbox.datatypes.hashtables.IntLinearProbingHashTable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+public class IntHashMap<V> extends IntLinearProbingHashTable<V> implements Map<Integer, V> {
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Integer && containsKey((int) (Integer) key);
+	}
+
+	@Override
+	public V get(Object key) {
+		return key instanceof Integer ? get((int) (Integer) key) : null;
+	}
+
+	@Override
+	public V put(Integer key, V value) {
+		return put((int) Objects.requireNonNull(key), value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return key instanceof Integer ? remove((int) (Integer) key) : null;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super Integer, ? super V> action) {
+		forEachEntry(action::accept);
+	}
+
+	@Override
+	public Set<Integer> keySet() {
+		Set<Integer> set = new HashSet<>();
+		forEachEntry((k, v) -> set.add(k));
+		return set;
+	}
+
+	@Override
+	public Collection<V> values() {
+		Collection<V> collection = new ArrayList<>(size());
+		forEachEntry((k, v) -> collection.add(v));
+		return collection;
+	}
+
+	@Override
+	public Set<Map.Entry<Integer, V>> entrySet() {
+		Set<Map.Entry<Integer, V>> set = new HashSet<>();
+		forEachEntry((k, v) -> set.add(new Entry(k, v)));
+		return set;
+	}
+
+	private class Entry implements Map.Entry<Integer, V> {
+
+		private final int key;
+		private V value;
+
+		private Entry(int key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public Integer getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			this.value = value;
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return getKey().equals(e.getKey()) && Objects.equals(value, e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Integer.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.raz.algotoolbox.containers;
+
+import com.raz.algotoolbox.datatypes.hashtables.LongLinearProbingHashTable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+public class LongHashMap<V> extends LongLinearProbingHashTable<V> implements Map<Long, V> {
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Long && containsKey((long) (Long) key);
+	}
+
+	@Override
+	public V get(Object key) {
+		return key instanceof Long ? get((long) (Long) key) : null;
+	}
+
+	@Override
+	public V put(Long key, V value) {
+		return put((long) Objects.requireNonNull(key), value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		return key instanceof Long ? remove((long) (Long) key) : null;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super Long, ? super V> action) {
+		forEachEntry(action::accept);
+	}
+
+	@Override
+	public Set<Long> keySet() {
+		Set<Long> set = new HashSet<>();
+		forEachEntry((k, v) -> set.add(k));
+		return set;
+	}
+
+	@Override
+	public Collection<V> values() {
+		Collection<V> collection = new ArrayList<>(size());
+		forEachEntry((k, v) -> collection.add(v));
+		return collection;
+	}
+
+	@Override
+	public Set<Map.Entry<Long, V>> entrySet() {
+		Set<Map.Entry<Long, V>> set = new HashSet<>();
+		forEachEntry((k, v) -> set.add(new Entry(k, v)));
+		return set;
+	}
+
+	private class Entry implements Map.Entry<Long, V> {
+
+		private final long key;
+		private V value;
+
+		private Entry(long key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public Long getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			this.value = value;
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return getKey().equals(e.getKey()) && Objects.equals(value, e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.raz.algotoolbox.containers;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedCacheTest {
+
+	@Test
+	public void testClockKeepsReferencedEntries() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(100, BoundedCache.EvictionPolicy.CLOCK);
+		for (int i = 0; i < 100; ++i) {
+			cache.put(i, i);
+		}
+		for (int i = 0; i < 50; ++i) {
+			assertEquals(Integer.valueOf(i), cache.get(i));
+		}
+		for (int i = 100; i < 150; ++i) {
+			cache.put(i, i);
+		}
+		assertEquals(100, cache.size());
+		assertEquals(50, cache.getEvictionCount());
+		for (int i = 0; i < 50; ++i) {
+			assertTrue(cache.containsKey(i));
+		}
+		for (int i = 50; i < 100; ++i) {
+			assertFalse(cache.containsKey(i));
+		}
+	}
+
+	@Test
+	public void testUpdateCountsAsUse() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(100, BoundedCache.EvictionPolicy.CLOCK);
+		for (int i = 0; i < 100; ++i) {
+			cache.put(i, i);
+		}
+		for (int i = 0; i < 50; ++i) {
+			assertEquals(Integer.valueOf(i), cache.put(i, -i));
+		}
+		for (int i = 100; i < 150; ++i) {
+			assertNull(cache.put(i, i));
+		}
+		assertEquals(100, cache.size());
+		assertEquals(0, cache.getHitCount());
+		for (int i = 0; i < 50; ++i) {
+			assertTrue(cache.containsKey(i));
+			assertFalse(cache.containsKey(i + 50));
+		}
+	}
+
+	@Test
+	public void testSampledLruKeepsRecentEntries() {
+		BoundedCache<Integer, Integer> cache = new BoundedCache<>(1000, BoundedCache.EvictionPolicy.SAMPLED_LRU,
+				new SplittableRandom(42));
+		for (int i = 0; i < 1000; ++i) {
+			cache.put(i, i);
+		}
+		for (int i = 0; i < 100; ++i) {
+			cache.get(i); // the most recently used entries now
+		}
+		for (int i = 1000; i < 1500; ++i) {
+			cache.put(i, i);
+		}
+		assertEquals(1000, cache.size());
+		int survivors = 0;
+		for (int i = 0; i < 100; ++i) {
+			if (cache.containsKey(i)) {
+				survivors++;
+			}
+		}
+		assertTrue(survivors > 90);
+	}
+
+	@Test
+	public void testBoundAndCounters() {
+		for (BoundedCache.EvictionPolicy policy : BoundedCache.EvictionPolicy.values()) {
+			BoundedCache<Integer, Integer> cache = new BoundedCache<>(64, policy);
+			Random rand = new Random();
+			long hits = 0;
+			long misses = 0;
+			for (int i = 0; i < 20000; ++i) {
+				int key = rand.nextInt(200);
+				Integer value = cache.get(key);
+				if (value == null) {
+					misses++;
+					cache.put(key, key);
+				} else {
+					hits++;
+					assertEquals(Integer.valueOf(key), value);
+				}
+				if (rand.nextInt(10) == 0) {
+					cache.remove(rand.nextInt(200));
+				}
+				assertTrue(cache.size() <= 64);
+				assertEquals(cache.size(), cache.weight());
+			}
+			assertEquals(hits, cache.getHitCount());
+			assertEquals(misses, cache.getMissCount());
+			assertTrue(cache.getEvictionCount() > 0);
+		}
+	}
+
+	@Test
+	public void testWeightLimit() {
+		BoundedCache<Integer, String> cache =
+				new BoundedCache<>(100, (k, v) -> v.length(), BoundedCache.EvictionPolicy.CLOCK);
+		for (int i = 0; i < 1000; ++i) {
+			cache.put(i, new String(new char[1 + i % 20]));
+			assertTrue(cache.weight() <= 100);
+		}
+		assertNull(cache.put(-1, new String(new char[101]))); // heavier than the whole cache
+		assertFalse(cache.containsKey(-1));
+		cache.put(999, new String(new char[100]));
+		assertEquals(1, cache.size());
+		assertEquals(100, cache.weight());
+		cache.clear();
+		assertTrue(cache.isEmpty());
+		assertEquals(0, cache.weight());
+	}
+
+}
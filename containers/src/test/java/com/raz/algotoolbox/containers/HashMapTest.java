@@ -1,13 +1,22 @@
 package com.raz.algotoolbox.containers;
 
+import com.raz.algotoolbox.datatypes.hashtables.CuckooHashTable;
+import com.raz.algotoolbox.datatypes.hashtables.HopscotchHashTable;
+import com.raz.algotoolbox.datatypes.hashtables.LinearProbingHashTable;
+import com.raz.algotoolbox.datatypes.hashtables.SwissHashTable;
 import org.junit.Test;
 
+import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class HashMapTest {
 
@@ -45,4 +54,132 @@ public class HashMapTest {
 		set.forEach(entry -> assertEquals(map.get(entry.getKey()), entry.getValue()));
 	}
 
+	@Test
+	public void testEngines() {
+		assertBehavesAsMap(new HashMap<>(new CuckooHashTable<>()));
+		assertBehavesAsMap(new HashMap<>(new SwissHashTable<>()));
+		assertBehavesAsMap(new HashMap<>(new HopscotchHashTable<>()));
+	}
+
+	@Test
+	public void testLiveViews() {
+		HashMap<Integer, String> map = new HashMap<>();
+		Set<Integer> keys = map.keySet();
+		Collection<String> values = map.values();
+		Set<Map.Entry<Integer, String>> entries = map.entrySet();
+		map.put(1, "a");
+		map.put(2, "a");
+		assertTrue(keys.contains(2));
+		assertEquals(2, values.size());
+		assertTrue(entries.contains(new AbstractMap.SimpleEntry<>(1, "a")));
+		assertFalse(entries.contains(new AbstractMap.SimpleEntry<>(1, "b")));
+		keys.remove(1);
+		assertFalse(map.containsKey(1));
+		entries.iterator().next().setValue("b");
+		assertEquals("b", map.get(2));
+		values.clear();
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		assertIteratorRemoval(new HashMap<>());
+		assertIteratorRemoval(new HashMap<>(LinearProbingHashTable.Config.DEFAULT.withRobinHood(true)));
+		assertIteratorRemoval(new HashMap<>(new CuckooHashTable<>()));
+		assertIteratorRemoval(new HashMap<>(new SwissHashTable<>()));
+		assertIteratorRemoval(new HashMap<>(new HopscotchHashTable<>()));
+	}
+
+	private void assertIteratorRemoval(HashMap<Integer, Integer> map) {
+		Map<Integer, Integer> reference = new java.util.HashMap<>();
+		for (int i = 0; i < 5000; ++i) {
+			map.put(i * 31, i);
+			reference.put(i * 31, i);
+		}
+		int visited = 0;
+		for (Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<Integer, Integer> e = it.next();
+			visited++;
+			if (e.getValue() % 3 != 0) {
+				it.remove();
+				reference.remove(e.getKey());
+			} else {
+				reference.put(e.getKey(), -e.getValue());
+				e.setValue(-e.getValue());
+			}
+		}
+		assertEquals(5000, visited);
+		assertEquals(reference.size(), map.size());
+		reference.forEach((k, v) -> assertEquals(v, map.get(k)));
+		for (Iterator<Integer> it = map.values().iterator(); it.hasNext(); ) {
+			it.next();
+			it.remove();
+		}
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testMergeCounts() {
+		assertMergeCounts(new HashMap<>());
+		assertMergeCounts(new HashMap<>(new SwissHashTable<>()));
+	}
+
+	private void assertMergeCounts(HashMap<String, Integer> map) {
+		for (int i = 0; i < 10000; ++i) {
+			map.merge("key" + i % 100, 1, Integer::sum);
+		}
+		assertEquals(100, map.size());
+		map.values().forEach(count -> assertEquals(Integer.valueOf(100), count));
+		assertEquals(Integer.valueOf(0), map.getOrDefault("missing", 0));
+	}
+
+	@Test
+	public void testFreeze() {
+		HashMap<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < 5000; ++i) {
+			map.put("key" + i, i);
+		}
+		HashMap<String, Integer> frozen = map.freeze();
+		assertEquals(map.size(), frozen.size());
+		map.forEach((k, v) -> assertEquals(v, frozen.get(k)));
+		assertEquals(map.keySet(), frozen.keySet());
+		try {
+			frozen.put("key", 0);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			assertFalse(frozen.containsKey("key"));
+		}
+	}
+
+	@Test
+	public void testParallelOperations() {
+		testParallelOperations(new HashMap<>());
+		testParallelOperations(new HashMap<>(new SwissHashTable<>()));
+	}
+
+	private void testParallelOperations(HashMap<Integer, Integer> map) {
+		for (int i = 0; i < 50000; ++i) {
+			map.put(i, i % 100);
+		}
+		assertEquals(Integer.valueOf(99), map.parallelReduce((k, v) -> v, Math::max));
+		assertEquals(Integer.valueOf(4321), map.parallelSearch((k, v) -> k == 4321 ? k : null));
+		assertEquals(map.size(), map.entrySpliterator().getExactSizeIfKnown());
+	}
+
+	private void assertBehavesAsMap(HashMap<Integer, Integer> map) {
+		Map<Integer, Integer> reference = new java.util.HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 20000; ++i) {
+			int key = rand.nextInt(3000);
+			if (rand.nextInt(3) != 0) {
+				assertEquals(reference.put(key, i), map.put(key, i));
+			} else {
+				assertEquals(reference.remove(key), map.remove(key));
+			}
+		}
+		assertEquals(reference.size(), map.size());
+		reference.forEach((k, v) -> assertEquals(v, map.get(k)));
+		assertEquals(reference.keySet(), map.keySet());
+	}
+
 }
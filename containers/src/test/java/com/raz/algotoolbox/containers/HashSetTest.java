@@ -0,0 +1,107 @@
+package com.raz.algotoolbox.containers;
+
+import com.raz.algotoolbox.datatypes.hashtables.HopscotchHashTable;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashSetTest {
+
+	@Test
+	public void testDefaultEngine() {
+		assertBehavesAsSet(new HashSet<>());
+	}
+
+	@Test
+	public void testHopscotchEngine() {
+		assertBehavesAsSet(new HashSet<>(new HopscotchHashTable<>()));
+	}
+
+	@Test
+	public void testBulkOperations() {
+		HashSet<Integer> set = new HashSet<>();
+		assertTrue(set.addAll(Arrays.asList(1, 2, 3, 4, 5, 6)));
+		assertFalse(set.addAll(Arrays.asList(1, 2)));
+		assertTrue(set.retainAll(Arrays.asList(2, 4, 6, 8)));
+		assertFalse(set.retainAll(Arrays.asList(2, 4, 6)));
+		assertEquals(new java.util.HashSet<>(Arrays.asList(2, 4, 6)), new java.util.HashSet<>(set));
+		assertTrue(set.removeAll(Arrays.asList(2, 3)));
+		assertFalse(set.removeAll(Arrays.asList(2, 3)));
+		assertEquals(2, set.size());
+	}
+
+	@Test
+	public void testContainsAllOfIdentitySet() {
+		HashSet<String> set = new HashSet<>();
+		set.add("a");
+		Set<String> identitySet = Collections.newSetFromMap(new IdentityHashMap<>());
+		identitySet.add(new String("a"));
+		identitySet.add(new String("a"));
+		assertTrue(set.containsAll(identitySet));
+		HashSet<String> larger = new HashSet<>();
+		larger.addAll(Arrays.asList("a", "b"));
+		assertFalse(set.containsAll(larger));
+	}
+
+	@Test
+	public void testSetAlgebra() {
+		assertSetAlgebra(1000, 3000);
+		assertSetAlgebra(3000, 1000);
+		assertSetAlgebra(200000, 100000); // parallel if the common pool has several threads
+	}
+
+	private void assertSetAlgebra(int firstSize, int secondSize) {
+		HashSet<Integer> first = new HashSet<>();
+		HashSet<Integer> second = new HashSet<>();
+		Set<Integer> reference = new java.util.HashSet<>();
+		for (int i = 0; i < firstSize; ++i) {
+			first.add(i * 2);
+			reference.add(i * 2);
+		}
+		for (int i = 0; i < secondSize; ++i) {
+			second.add(i * 3);
+		}
+		Set<Integer> union = new java.util.HashSet<>(reference);
+		union.addAll(second);
+		Set<Integer> intersection = new java.util.HashSet<>(reference);
+		intersection.retainAll(second);
+		Set<Integer> difference = new java.util.HashSet<>(reference);
+		difference.removeAll(second);
+		assertEquals(union, new java.util.HashSet<>(first.union(second)));
+		assertEquals(union, new java.util.HashSet<>(first.union(new java.util.HashSet<>(second))));
+		assertEquals(intersection, new java.util.HashSet<>(first.intersect(second)));
+		assertEquals(intersection, new java.util.HashSet<>(first.intersect(new java.util.HashSet<>(second))));
+		assertEquals(difference, new java.util.HashSet<>(first.difference(second)));
+		assertEquals(difference, new java.util.HashSet<>(first.difference(new java.util.HashSet<>(second))));
+		assertEquals(intersection.size(), first.intersectionSize(second));
+		assertEquals(intersection.size(), second.intersectionSize(first));
+		assertEquals(intersection.size(), first.intersectionSize(new java.util.HashSet<>(second)));
+	}
+
+	private void assertBehavesAsSet(HashSet<Integer> set) {
+		Set<Integer> reference = new java.util.HashSet<>();
+		Random rand = new Random();
+		for (int i = 0; i < 20000; ++i) {
+			int element = rand.nextInt(3000);
+			if (rand.nextInt(3) != 0) {
+				assertEquals(reference.add(element), set.add(element));
+			} else {
+				assertEquals(reference.remove(element), set.remove(element));
+			}
+		}
+		assertEquals(reference.size(), set.size());
+		for (int element : set) {
+			assertTrue(reference.contains(element));
+		}
+		assertTrue(set.containsAll(reference));
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.raz.algotoolbox.containers;
+
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IntHashMapTest {
+
+	@Test
+	public void testBoxedAccess() {
+		Map<Integer, String> map = new IntHashMap<>();
+		for (int i = 0; i < 1000; i += 17) {
+			map.put(i, "key = " + i);
+		}
+		assertTrue(map.containsKey(17));
+		assertFalse(map.containsKey(18));
+		assertFalse(map.containsKey("17"));
+		assertEquals("key = 34", map.get(34));
+		assertNull(map.get(35L));
+		assertEquals("key = 0", map.remove(0));
+		assertFalse(map.containsKey(0));
+	}
+
+	@Test
+	public void testViews() {
+		IntHashMap<String> map = new IntHashMap<>();
+		for (int i = 0; i < 1000; i += 17) {
+			map.put(i, "value");
+		}
+		Set<Integer> keys = map.keySet();
+		assertEquals(map.size(), keys.size());
+		map.forEach((k, v) -> assertTrue(keys.contains(k)));
+		Collection<String> values = map.values();
+		assertEquals(map.size(), values.size());
+		Set<Map.Entry<Integer, String>> entries = map.entrySet();
+		assertEquals(map.size(), entries.size());
+		for (Map.Entry<Integer, String> entry : entries) {
+			entry.setValue(entry.getValue() + "!");
+		}
+		map.forEach((k, v) -> assertEquals("value!", v));
+	}
+
+	@Test
+	public void testEntries() {
+		IntHashMap<String> map = new IntHashMap<>();
+		map.put(1, "one");
+		map.put(2, null);
+		Map<Integer, String> reference = new java.util.HashMap<>(map);
+		assertEquals(reference.entrySet(), map.entrySet());
+		for (Map.Entry<Integer, String> entry : map.entrySet()) {
+			assertEquals(new AbstractMap.SimpleEntry<>(entry).hashCode(), entry.hashCode());
+		}
+		assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>(1, "one")));
+		assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>(2, null)));
+		assertFalse(map.entrySet().contains(new AbstractMap.SimpleEntry<>(1, "two")));
+		assertFalse(map.entrySet().contains(new AbstractMap.SimpleEntry<>(1L, "one")));
+	}
+
+}
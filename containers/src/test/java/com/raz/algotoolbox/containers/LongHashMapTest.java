@@ -0,0 +1,67 @@
+package com.raz.algotoolbox.containers;
+
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongHashMapTest {
+
+	@Test
+	public void testBoxedAccess() {
+		Map<Long, String> map = new LongHashMap<>();
+		for (int i = 0; i < 1000; i += 17) {
+			map.put((long) i, "key = " + i);
+		}
+		assertTrue(map.containsKey(17L));
+		assertFalse(map.containsKey(18L));
+		assertFalse(map.containsKey("17"));
+		assertEquals("key = 34", map.get(34L));
+		assertNull(map.get(35));
+		assertEquals("key = 0", map.remove(0L));
+		assertFalse(map.containsKey(0L));
+	}
+
+	@Test
+	public void testViews() {
+		LongHashMap<String> map = new LongHashMap<>();
+		for (int i = 0; i < 1000; i += 17) {
+			map.put(i, "value");
+		}
+		Set<Long> keys = map.keySet();
+		assertEquals(map.size(), keys.size());
+		map.forEach((k, v) -> assertTrue(keys.contains(k)));
+		Collection<String> values = map.values();
+		assertEquals(map.size(), values.size());
+		Set<Map.Entry<Long, String>> entries = map.entrySet();
+		assertEquals(map.size(), entries.size());
+		for (Map.Entry<Long, String> entry : entries) {
+			entry.setValue(entry.getValue() + "!");
+		}
+		map.forEach((k, v) -> assertEquals("value!", v));
+	}
+
+	@Test
+	public void testEntries() {
+		LongHashMap<String> map = new LongHashMap<>();
+		map.put(1L, "one");
+		map.put(2L, null);
+		Map<Long, String> reference = new java.util.HashMap<>(map);
+		assertEquals(reference.entrySet(), map.entrySet());
+		for (Map.Entry<Long, String> entry : map.entrySet()) {
+			assertEquals(new AbstractMap.SimpleEntry<>(entry).hashCode(), entry.hashCode());
+		}
+		assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>(1L, "one")));
+		assertTrue(map.entrySet().contains(new AbstractMap.SimpleEntry<>(2L, null)));
+		assertFalse(map.entrySet().contains(new AbstractMap.SimpleEntry<>(1L, "two")));
+		assertFalse(map.entrySet().contains(new AbstractMap.SimpleEntry<>(1, "one")));
+	}
+
+}
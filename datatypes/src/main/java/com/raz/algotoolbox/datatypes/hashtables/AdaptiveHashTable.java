@@ -0,0 +1,342 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * A hash table for maps which are mostly tiny. Up to {@link #MAX_INLINE} entries are kept in a single flat array of
+ * alternating keys and values, which lookups scan from the start: there is no hashing at all, no object per entry, and
+ * a handful of entries share a cache line or two. A table which outgrows it moves its entries into a
+ * {@link LinearProbingHashTable}, and moves them back once removals leave it with half as many.
+ * An empty table holds no array, and clearing a table releases its arrays.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public final class AdaptiveHashTable<K, V> implements HashTable<K, V> {
+
+	public static final int MAX_INLINE = 8;
+	private static final int MIN_INLINE_CAPACITY = 2;
+	private static final Object[] NO_ENTRIES = {};
+
+	private final LinearProbingHashTable.Config config;
+	/*
+	 * The key of inline entry i is at 2i and its value at 2i+1. While the entries live in the large table, there are
+	 * no inline entries.
+	 */
+	private Object[] entries = NO_ENTRIES;
+	private int inlineSize;
+	private LinearProbingHashTable<K, V> large;
+
+	public AdaptiveHashTable() {
+		this(LinearProbingHashTable.Config.DEFAULT);
+	}
+
+	/**
+	 * @param config configures the table which holds the entries when there are too many to keep inline.
+	 */
+	public AdaptiveHashTable(LinearProbingHashTable.Config config) {
+		this.config = Objects.requireNonNull(config);
+	}
+
+	@Override
+	public int size() {
+		return large != null ? large.size() : inlineSize;
+	}
+
+	/**
+	 * @return whether the entries are kept in a {@link LinearProbingHashTable} rather than inline.
+	 */
+	public boolean isInflated() {
+		return large != null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return large != null ? large.containsKey(key) : indexOf(Objects.requireNonNull(key)) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (large != null) {
+			return large.containsValue(value);
+		}
+		for (int i = 0; i < inlineSize; ++i) {
+			if (Objects.equals(entries[2 * i + 1], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (large != null) {
+			return large.get(key);
+		}
+		int index = indexOf(Objects.requireNonNull(key));
+		return index < 0 ? null : valueAt(index);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (large != null) {
+			return large.put(key, value);
+		}
+		int index = indexOf(Objects.requireNonNull(key));
+		if (index >= 0) {
+			V oldValue = valueAt(index);
+			entries[2 * index + 1] = value;
+			return oldValue;
+		}
+		if (inlineSize == MAX_INLINE) {
+			inflate();
+			return large.put(key, value);
+		}
+		if (2 * inlineSize == entries.length) {
+			entries = Arrays.copyOf(entries, 2 * Math.max(MIN_INLINE_CAPACITY, 2 * inlineSize));
+		}
+		entries[2 * inlineSize] = key;
+		entries[2 * inlineSize + 1] = value;
+		inlineSize++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (large != null) {
+			V value = large.remove(key);
+			deflateIfSmall();
+			return value;
+		}
+		int index = indexOf(Objects.requireNonNull(key));
+		if (index < 0) {
+			return null;
+		}
+		V value = valueAt(index);
+		removeAt(index);
+		return value;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		if (large == null && inlineSize + m.size() > MAX_INLINE) {
+			inflate();
+		}
+		if (large != null) {
+			large.putAll(m);
+		} else {
+			m.forEach(this::put);
+		}
+	}
+
+	@Override
+	public void clear() {
+		entries = NO_ENTRIES;
+		inlineSize = 0;
+		large = null;
+	}
+
+	/*
+	 * The following operations are delegated to the large table, which probes for the key once. The inline entries
+	 * are scanned so fast that the defaults, which look the key up twice, do as well.
+	 */
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		return large != null ? large.getOrDefault(key, defaultValue) : HashTable.super.getOrDefault(key, defaultValue);
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return large != null ? large.putIfAbsent(key, value) : HashTable.super.putIfAbsent(key, value);
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		return large != null ? large.computeIfAbsent(key, mappingFunction)
+				: HashTable.super.computeIfAbsent(key, mappingFunction);
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (large == null) {
+			return HashTable.super.computeIfPresent(key, remappingFunction);
+		}
+		V value = large.computeIfPresent(key, remappingFunction);
+		deflateIfSmall();
+		return value;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		if (large == null) {
+			return HashTable.super.compute(key, remappingFunction);
+		}
+		V value = large.compute(key, remappingFunction);
+		deflateIfSmall();
+		return value;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		if (large == null) {
+			return HashTable.super.merge(key, value, remappingFunction);
+		}
+		V newValue = large.merge(key, value, remappingFunction);
+		deflateIfSmall();
+		return newValue;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		if (large != null) {
+			large.forEach(action);
+			return;
+		}
+		for (int i = 0; i < inlineSize; ++i) {
+			action.accept(keyAt(i), valueAt(i));
+		}
+	}
+
+	/**
+	 * Removals through the iterator never move the entries between the inline array and the large table.
+	 */
+	@Override
+	public Iterator<K> keysIterator() {
+		if (large != null) {
+			return large.keysIterator();
+		}
+		return new Iterator<K>() {
+
+			private int next;
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next < inlineSize;
+			}
+
+			@Override
+			public K next() {
+				if (next >= inlineSize) {
+					throw new NoSuchElementException();
+				}
+				last = next++;
+				return keyAt(last);
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				removeAt(last); // which moves the last entry into the removed one, to be visited next
+				next = last;
+				last = -1;
+			}
+		};
+	}
+
+	@Override
+	public Iterator<Map.Entry<K, V>> entriesIterator() {
+		return large != null ? large.entriesIterator() : HashTable.super.entriesIterator();
+	}
+
+	@Override
+	public Spliterator<K> keySpliterator() {
+		return large != null ? large.keySpliterator() : HashTable.super.keySpliterator();
+	}
+
+	@Override
+	public Spliterator<Map.Entry<K, V>> entrySpliterator() {
+		return large != null ? large.entrySpliterator() : HashTable.super.entrySpliterator();
+	}
+
+	@Override
+	public void parallelForEach(BiConsumer<? super K, ? super V> action) {
+		if (large != null) {
+			large.parallelForEach(action);
+		} else {
+			forEach(action); // too few entries to be worth splitting
+		}
+	}
+
+	@Override
+	public <U> U parallelReduce(BiFunction<? super K, ? super V, ? extends U> transformer, BinaryOperator<U> reducer) {
+		return large != null ? large.parallelReduce(transformer, reducer)
+				: HashTable.super.parallelReduce(transformer, reducer);
+	}
+
+	@Override
+	public <U> U parallelSearch(BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+		return large != null ? large.parallelSearch(searchFunction) : HashTable.super.parallelSearch(searchFunction);
+	}
+
+	private int indexOf(Object key) {
+		for (int i = 0; i < inlineSize; ++i) {
+			Object k = entries[2 * i];
+			if (k == key || key.equals(k)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Moves the last inline entry into the removed one, so the inline entries stay contiguous.
+	 */
+	private void removeAt(int index) {
+		int last = inlineSize - 1;
+		entries[2 * index] = entries[2 * last];
+		entries[2 * index + 1] = entries[2 * last + 1];
+		entries[2 * last] = null;
+		entries[2 * last + 1] = null;
+		inlineSize = last;
+	}
+
+	private void inflate() {
+		large = new LinearProbingHashTable<>(config);
+		for (int i = 0; i < inlineSize; ++i) {
+			large.put(keyAt(i), valueAt(i));
+		}
+		entries = NO_ENTRIES;
+		inlineSize = 0;
+	}
+
+	/**
+	 * Moves the entries back inline once they fit in half of the inline entries, so that updates around the limit do
+	 * not move the entries back and forth.
+	 */
+	private void deflateIfSmall() {
+		if (large.size() > MAX_INLINE / 2) {
+			return;
+		}
+		LinearProbingHashTable<K, V> table = large;
+		large = null;
+		entries = new Object[MAX_INLINE];
+		table.forEach((k, v) -> {
+			entries[2 * inlineSize] = k;
+			entries[2 * inlineSize + 1] = v;
+			inlineSize++;
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private K keyAt(int index) {
+		return (K) entries[2 * index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int index) {
+		return (V) entries[2 * index + 1];
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts objects to and from bytes, for hash tables which are written to files.
+ * Two equal objects must be encoded to the same bytes, since a lookup in a written table compares encoded keys.
+ * @param <T> is the type of the encoded objects.
+ */
+public interface ByteCodec<T> {
+
+	byte[] encode(T t);
+
+	T decode(byte[] bytes);
+
+	static ByteCodec<String> utf8() {
+		return new ByteCodec<String>() {
+
+			@Override
+			public byte[] encode(String s) {
+				return s.getBytes(StandardCharsets.UTF_8);
+			}
+
+			@Override
+			public String decode(byte[] bytes) {
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+		};
+	}
+
+	static ByteCodec<Integer> integers() {
+		return new ByteCodec<Integer>() {
+
+			@Override
+			public byte[] encode(Integer i) {
+				return ByteBuffer.allocate(Integer.BYTES).putInt(i).array();
+			}
+
+			@Override
+			public Integer decode(byte[] bytes) {
+				return ByteBuffer.wrap(bytes).getInt();
+			}
+		};
+	}
+
+	static ByteCodec<Long> longs() {
+		return new ByteCodec<Long>() {
+
+			@Override
+			public byte[] encode(Long l) {
+				return ByteBuffer.allocate(Long.BYTES).putLong(l).array();
+			}
+
+			@Override
+			public Long decode(byte[] bytes) {
+				return ByteBuffer.wrap(bytes).getLong();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,634 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A lock-free hash table which uses a linear probing scheme to resolve collisions.
+ * Keys and values live in separate atomic arrays and are installed with compare-and-set. A key, once installed in a
+ * slot, stays there for the lifetime of that array, so every key has a single slot per array, and a removal only
+ * replaces the value with a tombstone. Lookups never block, but one which meets a slot of an array being resized
+ * copies that slot to the next array before reading on there.
+ * When the array fills up, a larger one is chained to it and the threads which update the table copy the old slots in
+ * chunks. A slot is copied by first freezing its value, so that no update to it is lost, then writing the value to
+ * the new array if no newer value is there already, and finally marking the old slot as copied. Once every slot is
+ * copied, the new array replaces the old one.
+ * Null keys and values are not allowed.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public class ConcurrentLinearProbingHashTable<K, V> {
+
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int COPY_CHUNK = 1024;
+
+	/** The value of a removed mapping. */
+	private static final Object TOMBSTONE = new Object();
+	/** The key of a slot which was still empty when its array got copied; no key may be installed there anymore. */
+	private static final Object DEAD_KEY = new Object();
+	/** The value of a slot which has been copied to the next array. */
+	private static final Prime COPIED = new Prime(TOMBSTONE);
+	/** An expected value which matches anything, including no mapping at all. */
+	private static final Object MATCH_ALL = new Object();
+	/** An expected value which matches any mapped value. */
+	private static final Object MATCH_MAPPED = new Object();
+	/** An expected value which matches only a slot which has never been given a value; used to copy slots. */
+	private static final Object MATCH_UNSET = new Object();
+
+	private final AtomicReference<Table> table = new AtomicReference<>(new Table(INITIAL_CAPACITY));
+	private final LongAdder size = new LongAdder();
+
+	public int size() {
+		long sum = size.sum();
+		return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) Math.max(sum, 0);
+	}
+
+	/**
+	 * @return the number of slots of the current array, not counting an array a resize is copying into.
+	 */
+	public int capacity() {
+		return table.get().mask + 1;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	public boolean containsValue(Object value) {
+		Objects.requireNonNull(value);
+		for (Iterator<Map.Entry<K, V>> iter = entriesIterator(); iter.hasNext(); ) {
+			if (value.equals(iter.next().getValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		Objects.requireNonNull(key);
+		int hash = spread(key);
+		Table t = table.get();
+		while (true) {
+			int index = hash & t.mask;
+			Table next = null;
+			for (int reprobes = 0; ; ++reprobes) {
+				Object k = t.keys.get(index);
+				if (k == null) {
+					return null;
+				}
+				if (k == DEAD_KEY || reprobes >= t.reprobeLimit) {
+					next = t.next.get();
+					if (next == null) {
+						return null;
+					}
+					break;
+				}
+				if (k == key || k.equals(key)) {
+					Object v = t.values.get(index);
+					if (!(v instanceof Prime)) {
+						return v == TOMBSTONE ? null : (V) v;
+					}
+					next = copySlotAndCheck(t, index, false);
+					break;
+				}
+				index = (index + 1) & t.mask;
+			}
+			t = next;
+		}
+	}
+
+	public V put(K key, V value) {
+		return mappedValue(putIfMatch(key, Objects.requireNonNull(value), MATCH_ALL));
+	}
+
+	public V putIfAbsent(K key, V value) {
+		return mappedValue(putIfMatch(key, Objects.requireNonNull(value), TOMBSTONE));
+	}
+
+	public V remove(Object key) {
+		return mappedValue(putIfMatch(key, TOMBSTONE, MATCH_ALL));
+	}
+
+	public boolean remove(Object key, Object value) {
+		return value != null && Objects.equals(value, mappedValue(putIfMatch(key, TOMBSTONE, value)));
+	}
+
+	public V replace(K key, V value) {
+		return mappedValue(putIfMatch(key, Objects.requireNonNull(value), MATCH_MAPPED));
+	}
+
+	public boolean replace(K key, V oldValue, V newValue) {
+		Objects.requireNonNull(oldValue);
+		return oldValue.equals(mappedValue(putIfMatch(key, Objects.requireNonNull(newValue), oldValue)));
+	}
+
+	/**
+	 * Like every compound operation of this table, this one is atomic: it installs its result only if the mapping it
+	 * was computed from is still current, and recomputes it otherwise. Hence the functions given to the compound
+	 * operations may be applied more than once under contention, and should be free of side effects.
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		V value = get(key);
+		if (value != null) {
+			return value;
+		}
+		V newValue = mappingFunction.apply(key);
+		if (newValue == null) {
+			return null;
+		}
+		V previous = putIfAbsent(key, newValue);
+		return previous == null ? newValue : previous;
+	}
+
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		for (V oldValue = get(key); oldValue != null; oldValue = get(key)) {
+			V newValue = remappingFunction.apply(key, oldValue);
+			if (newValue == null ? remove(key, oldValue) : replace(key, oldValue, newValue)) {
+				return newValue;
+			}
+		}
+		return null;
+	}
+
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		while (true) {
+			V oldValue = get(key);
+			V newValue = remappingFunction.apply(key, oldValue);
+			if (oldValue == null) {
+				if (newValue == null || putIfAbsent(key, newValue) == null) {
+					return newValue;
+				}
+			} else if (newValue == null ? remove(key, oldValue) : replace(key, oldValue, newValue)) {
+				return newValue;
+			}
+		}
+	}
+
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(value);
+		while (true) {
+			V oldValue = get(key);
+			if (oldValue == null) {
+				if (putIfAbsent(key, value) == null) {
+					return value;
+				}
+				continue;
+			}
+			V newValue = remappingFunction.apply(oldValue, value);
+			if (newValue == null ? remove(key, oldValue) : replace(key, oldValue, newValue)) {
+				return newValue;
+			}
+		}
+	}
+
+	public void putAll(Map<? extends K, ? extends V> m) {
+		m.forEach(this::put);
+	}
+
+	/**
+	 * Removes the mappings one by one, so it is not atomic with respect to concurrent updates.
+	 */
+	public void clear() {
+		for (Iterator<K> iter = keysIterator(); iter.hasNext(); ) {
+			remove(iter.next());
+		}
+	}
+
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (Iterator<Map.Entry<K, V>> iter = entriesIterator(); iter.hasNext(); ) {
+			Map.Entry<K, V> entry = iter.next();
+			action.accept(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * The iterator is weakly consistent: it yields every mapping which exists when it is created and is not removed
+	 * before it is reached, and may or may not yield mappings added afterwards.
+	 */
+	public Iterator<K> keysIterator() {
+		Iterator<Map.Entry<K, V>> entries = entriesIterator();
+		return new Iterator<K>() {
+
+			@Override
+			public boolean hasNext() {
+				return entries.hasNext();
+			}
+
+			@Override
+			public K next() {
+				return entries.next().getKey();
+			}
+
+			@Override
+			public void remove() {
+				entries.remove();
+			}
+		};
+	}
+
+	/**
+	 * The iterator is weakly consistent, see {@link #keysIterator()}. Setting the value of an entry puts it in the
+	 * table.
+	 */
+	public Iterator<Map.Entry<K, V>> entriesIterator() {
+		return new EntriesIterator();
+	}
+
+	private static int spread(Object key) {
+		return Hashing.mix(key.hashCode());
+	}
+
+	private static boolean isMapped(Object value) {
+		return value != null && value != TOMBSTONE;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V mappedValue(Object value) {
+		return isMapped(value) ? (V) value : null;
+	}
+
+	private Object putIfMatch(Object key, Object putValue, Object expectedValue) {
+		Objects.requireNonNull(key);
+		return putIfMatch(table.get(), key, spread(key), putValue, expectedValue);
+	}
+
+	/**
+	 * Sets the value of the key to {@code putValue} if its current value matches {@code expectedValue}.
+	 * @return the value of the key before the operation, which may be null or a tombstone when it was not mapped.
+	 */
+	private Object putIfMatch(Table t, Object key, int hash, Object putValue, Object expectedValue) {
+		while (true) {
+			int index = hash & t.mask;
+			int reprobes = 0;
+			Object k;
+			while (true) {
+				k = t.keys.get(index);
+				if (k == null) {
+					if (putValue == TOMBSTONE || !(expectedValue == MATCH_ALL || expectedValue == TOMBSTONE
+							|| expectedValue == MATCH_UNSET)) {
+						return null; // only a mapped value could match, so no slot is claimed for the key
+					}
+					if (t.keys.compareAndSet(index, null, key)) {
+						t.claimedSlots.incrementAndGet();
+						break;
+					}
+					k = t.keys.get(index);
+				}
+				if (k == key || (k != DEAD_KEY && k.equals(key))) {
+					break;
+				}
+				if (k == DEAD_KEY || ++reprobes >= t.reprobeLimit) {
+					// the key is not in this array and can no longer be added to it
+					Table full = t;
+					t = resize(full);
+					if (expectedValue != MATCH_UNSET) {
+						helpCopy(full);
+					}
+					index = -1;
+					break;
+				}
+				index = (index + 1) & t.mask;
+			}
+			if (index < 0) {
+				continue;
+			}
+			Object v = t.values.get(index);
+			Table next = t.next.get();
+			if (next == null && (v instanceof Prime || (v == null && t.isFull()))) {
+				next = resize(t);
+			}
+			if (next != null) {
+				t = copySlotAndCheck(t, index, expectedValue != MATCH_UNSET);
+				continue;
+			}
+			while (true) {
+				if (!matches(v, expectedValue) || v == putValue) {
+					return v;
+				}
+				if (t.values.compareAndSet(index, v, putValue)) {
+					if (expectedValue != MATCH_UNSET) {
+						if (isMapped(putValue) && !isMapped(v)) {
+							size.increment();
+						} else if (!isMapped(putValue) && isMapped(v)) {
+							size.decrement();
+						}
+					}
+					return v;
+				}
+				v = t.values.get(index);
+				if (v instanceof Prime) {
+					break;
+				}
+			}
+			t = copySlotAndCheck(t, index, expectedValue != MATCH_UNSET);
+		}
+	}
+
+	private static boolean matches(Object value, Object expectedValue) {
+		if (expectedValue == MATCH_ALL) {
+			return true;
+		}
+		if (expectedValue == MATCH_UNSET) {
+			return value == null;
+		}
+		if (expectedValue == MATCH_MAPPED) {
+			return isMapped(value);
+		}
+		if (expectedValue == TOMBSTONE) {
+			return !isMapped(value);
+		}
+		return isMapped(value) && (value == expectedValue || value.equals(expectedValue));
+	}
+
+	/**
+	 * @return the array chained to the given one, creating it if needed.
+	 */
+	private Table resize(Table t) {
+		Table next = t.next.get();
+		if (next != null) {
+			return next;
+		}
+		int capacity = t.mask + 1;
+		long mapped = size.sum();
+		long grownCapacity = capacity; // in a long, as shifting the largest capacities overflows an int
+		if (mapped >= capacity >> 2) {
+			grownCapacity = (long) capacity << 1;
+			if (mapped >= capacity >> 1) {
+				grownCapacity = (long) capacity << 2;
+			}
+		}
+		int newCapacity = (int) Math.min(grownCapacity, Hashing.MAX_CAPACITY);
+		if (newCapacity == capacity && mapped >= capacity - (capacity >> 2)) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		t.next.compareAndSet(null, new Table(newCapacity));
+		return t.next.get();
+	}
+
+	/**
+	 * Copies the slot to the next array, optionally helps copying the rest of the array, and returns the next array.
+	 */
+	private Table copySlotAndCheck(Table t, int index, boolean help) {
+		Table next = t.next.get();
+		if (copySlot(t, index, next)) {
+			copyDone(t, 1);
+		}
+		if (help) {
+			helpCopy(t);
+		}
+		return next;
+	}
+
+	/**
+	 * Copies the next chunk of the array. Chunks are handed out twice over, so that slots left behind by a stalled
+	 * thread are copied by others; once they have all been handed out twice, the helper copies the whole array.
+	 */
+	private void helpCopy(Table t) {
+		Table next = t.next.get();
+		int capacity = t.mask + 1;
+		if (next == null || t.copyDone.get() >= capacity) {
+			return;
+		}
+		int start = t.copyIndex.getAndAdd(COPY_CHUNK);
+		int from = 0;
+		int to = capacity;
+		if (start >= 0 && start < 2L * capacity) {
+			from = start & t.mask;
+			to = Math.min(from + COPY_CHUNK, capacity);
+		}
+		int work = 0;
+		for (int i = from; i < to; ++i) {
+			if (copySlot(t, i, next)) {
+				work++;
+			}
+		}
+		copyDone(t, work);
+	}
+
+	/**
+	 * @return true iff this call is the one which brought the slot to its final, copied state.
+	 */
+	private boolean copySlot(Table t, int index, Table next) {
+		Object k = t.keys.get(index);
+		while (k == null) {
+			if (t.keys.compareAndSet(index, null, DEAD_KEY)) {
+				return true;
+			}
+			k = t.keys.get(index);
+		}
+		if (k == DEAD_KEY) {
+			return false;
+		}
+		Object v = t.values.get(index);
+		while (!(v instanceof Prime)) {
+			Prime frozen = isMapped(v) ? new Prime(v) : COPIED;
+			if (t.values.compareAndSet(index, v, frozen)) {
+				if (frozen == COPIED) {
+					return true;
+				}
+				v = frozen;
+				break;
+			}
+			v = t.values.get(index);
+		}
+		if (v == COPIED) {
+			return false;
+		}
+		putIfMatch(next, k, spread(k), ((Prime) v).value, MATCH_UNSET);
+		while (v != COPIED) {
+			if (t.values.compareAndSet(index, v, COPIED)) {
+				return true;
+			}
+			v = t.values.get(index);
+		}
+		return false;
+	}
+
+	private void copyDone(Table t, int work) {
+		if (work > 0 && t.copyDone.addAndGet(work) == t.mask + 1) {
+			promote(t);
+		}
+	}
+
+	/**
+	 * Replaces the top array by its successor for as long as the top array is completely copied.
+	 */
+	private void promote(Table t) {
+		while (t.copyDone.get() == t.mask + 1 && table.compareAndSet(t, t.next.get())) {
+			t = t.next.get();
+		}
+	}
+
+	private static final class Table {
+
+		private final AtomicReferenceArray<Object> keys;
+		private final AtomicReferenceArray<Object> values;
+		private final int mask;
+		private final int reprobeLimit;
+		private final AtomicInteger claimedSlots = new AtomicInteger();
+		private final AtomicReference<Table> next = new AtomicReference<>();
+		private final AtomicInteger copyIndex = new AtomicInteger();
+		private final AtomicInteger copyDone = new AtomicInteger();
+
+		private Table(int capacity) {
+			keys = new AtomicReferenceArray<>(capacity);
+			values = new AtomicReferenceArray<>(capacity);
+			mask = capacity - 1;
+			reprobeLimit = 10 + (capacity >> 2);
+		}
+
+		/**
+		 * Slots of removed mappings keep their keys, so the load is measured by the claimed slots.
+		 */
+		private boolean isFull() {
+			return claimedSlots.get() > (mask >> 1) + (mask >> 2);
+		}
+	}
+
+	/**
+	 * A frozen value: the slot holding it is being copied to the next array and may not be updated anymore.
+	 */
+	private static final class Prime {
+
+		private final Object value;
+
+		private Prime(Object value) {
+			this.value = value;
+		}
+	}
+
+	private class EntriesIterator implements Iterator<Map.Entry<K, V>> {
+
+		private final Table t;
+		private int index = -1;
+		private Map.Entry<K, V> nextEntry;
+		private Map.Entry<K, V> lastEntry;
+
+		private EntriesIterator() {
+			t = finishCopies();
+			advance();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextEntry != null;
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			if (nextEntry == null) {
+				throw new NoSuchElementException();
+			}
+			lastEntry = nextEntry;
+			advance();
+			return lastEntry;
+		}
+
+		@Override
+		public void remove() {
+			if (lastEntry == null) {
+				throw new IllegalStateException();
+			}
+			ConcurrentLinearProbingHashTable.this.remove(lastEntry.getKey());
+			lastEntry = null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private void advance() {
+			nextEntry = null;
+			while (nextEntry == null && ++index <= t.mask) {
+				Object k = t.keys.get(index);
+				if (k == null || k == DEAD_KEY) {
+					continue;
+				}
+				Object v = t.values.get(index);
+				if (v instanceof Prime) {
+					v = get(k); // the slot has moved on to a newer array
+				}
+				if (isMapped(v)) {
+					nextEntry = new Entry((K) k, (V) v);
+				}
+			}
+		}
+
+		/**
+		 * Completes any copy in progress, so that every mapping is found in the array being iterated.
+		 */
+		private Table finishCopies() {
+			Table top = table.get();
+			while (top.next.get() != null) {
+				Table next = top.next.get();
+				int work = 0;
+				for (int i = 0; i <= top.mask; ++i) {
+					if (copySlot(top, i, next)) {
+						work++;
+					}
+				}
+				copyDone(top, work);
+				top = next;
+			}
+			return top;
+		}
+	}
+
+	private class Entry implements Map.Entry<K, V> {
+
+		private final K key;
+		private V value;
+
+		private Entry(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public K getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			this.value = Objects.requireNonNull(value);
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			return key.equals(e.getKey()) && value.equals(e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+
+}
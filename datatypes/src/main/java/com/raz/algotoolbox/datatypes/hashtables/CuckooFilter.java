@@ -0,0 +1,198 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Objects;
+
+/**
+ * A cuckoo filter: a cuckoo hash table of 16-bit fingerprints of the keys, in buckets of four fingerprints. Every
+ * fingerprint has two candidate buckets, the second of which is derived from the first and the fingerprint alone
+ * (partial-key cuckoo hashing), so that a fingerprint can be moved between its buckets without knowing its key. Unlike
+ * a Bloom filter it supports removals, and a lookup reads two buckets at most.
+ * A fingerprint which is left homeless after too many moves is kept aside as the victim, and the filter refuses any
+ * further key until a removal makes room for it again.
+ */
+public final class CuckooFilter implements KeyFilter {
+
+	private static final int BUCKET_SHIFT = 2; // 4 fingerprints per bucket
+	private static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+	private static final double MAX_LOAD = 0.95;
+	private static final int MAX_KICKS = 500;
+
+	/*
+	 * The fingerprints of bucket b are in the slots 4b to 4b+3. An empty slot holds 0, which no fingerprint equals.
+	 */
+	private final char[] fingerprints;
+	private final int bucketMask;
+	private int size;
+	private boolean hasVictim;
+	private int victimBucket;
+	private char victimFingerprint;
+	private int random = 1;
+
+	/**
+	 * @param expectedInsertions is the number of keys the filter is sized for, which it holds without any failure in
+	 *                           all likelihood.
+	 */
+	public CuckooFilter(int expectedInsertions) {
+		if (expectedInsertions < 0) {
+			throw new IllegalArgumentException("Illegal expected insertions: " + expectedInsertions);
+		}
+		int buckets = Hashing.powerOfTwoCapacity((int) Math.min(Math.ceil(expectedInsertions / (MAX_LOAD * BUCKET_SIZE)),
+				Hashing.MAX_CAPACITY >>> BUCKET_SHIFT));
+		this.fingerprints = new char[buckets << BUCKET_SHIFT];
+		this.bucketMask = buckets - 1;
+	}
+
+	/**
+	 * @return false iff the filter is too full to hold the key.
+	 */
+	public boolean add(Object key) {
+		return addHash(Hashing.mix(Objects.requireNonNull(key).hashCode()));
+	}
+
+	/**
+	 * @return false if the key was certainly never added, or was removed as many times as it was added, and true if it
+	 *         probably is in the filter.
+	 */
+	public boolean mightContain(Object key) {
+		return mightContainHash(Hashing.mix(Objects.requireNonNull(key).hashCode()));
+	}
+
+	/**
+	 * Removes a key which was added before. Removing a key which was not may remove another key sharing its
+	 * fingerprint and bucket instead.
+	 * @return true iff a fingerprint of the key was found and removed.
+	 */
+	public boolean remove(Object key) {
+		return removeHash(Hashing.mix(Objects.requireNonNull(key).hashCode()));
+	}
+
+	/**
+	 * @return the number of fingerprints in the filter, counting the victim.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean addHash(int hash) {
+		if (hasVictim) {
+			return false;
+		}
+		long h = Hashing.mix64(hash);
+		char fingerprint = fingerprintOf(h);
+		int bucket = (int) h & bucketMask;
+		size++;
+		if (insert(bucket, fingerprint) || insert(alternate(bucket, fingerprint), fingerprint)) {
+			return true;
+		}
+		for (int kick = 0; kick < MAX_KICKS; ++kick) {
+			random ^= random << 13;
+			random ^= random >>> 17;
+			random ^= random << 5;
+			int slot = (bucket << BUCKET_SHIFT) + (random & (BUCKET_SIZE - 1));
+			char evicted = fingerprints[slot];
+			fingerprints[slot] = fingerprint;
+			fingerprint = evicted;
+			bucket = alternate(bucket, fingerprint);
+			if (insert(bucket, fingerprint)) {
+				return true;
+			}
+		}
+		hasVictim = true;
+		victimBucket = bucket;
+		victimFingerprint = fingerprint;
+		return true;
+	}
+
+	@Override
+	public boolean mightContainHash(int hash) {
+		long h = Hashing.mix64(hash);
+		char fingerprint = fingerprintOf(h);
+		int bucket = (int) h & bucketMask;
+		int other = alternate(bucket, fingerprint);
+		return bucketContains(bucket, fingerprint) || bucketContains(other, fingerprint)
+				|| (hasVictim && victimFingerprint == fingerprint && (victimBucket == bucket || victimBucket == other));
+	}
+
+	@Override
+	public boolean removeHash(int hash) {
+		long h = Hashing.mix64(hash);
+		char fingerprint = fingerprintOf(h);
+		int bucket = (int) h & bucketMask;
+		int other = alternate(bucket, fingerprint);
+		if (delete(bucket, fingerprint) || delete(other, fingerprint)) {
+			size--;
+			if (hasVictim) {
+				// the victim may fit into the freed slot, or else into its other bucket
+				hasVictim = false;
+				size--;
+				addVictim();
+			}
+			return true;
+		}
+		if (hasVictim && victimFingerprint == fingerprint && (victimBucket == bucket || victimBucket == other)) {
+			hasVictim = false;
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	private void addVictim() {
+		int bucket = victimBucket;
+		char fingerprint = victimFingerprint;
+		size++;
+		if (!insert(bucket, fingerprint) && !insert(alternate(bucket, fingerprint), fingerprint)) {
+			hasVictim = true;
+		}
+	}
+
+	private boolean insert(int bucket, char fingerprint) {
+		int start = bucket << BUCKET_SHIFT;
+		for (int slot = start; slot < start + BUCKET_SIZE; ++slot) {
+			if (fingerprints[slot] == 0) {
+				fingerprints[slot] = fingerprint;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean delete(int bucket, char fingerprint) {
+		int start = bucket << BUCKET_SHIFT;
+		for (int slot = start; slot < start + BUCKET_SIZE; ++slot) {
+			if (fingerprints[slot] == fingerprint) {
+				fingerprints[slot] = 0;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean bucketContains(int bucket, char fingerprint) {
+		int start = bucket << BUCKET_SHIFT;
+		for (int slot = start; slot < start + BUCKET_SIZE; ++slot) {
+			if (fingerprints[slot] == fingerprint) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * The fingerprint is taken from the high bits of the hash, and the first bucket from its low bits.
+	 */
+	private static char fingerprintOf(long h) {
+		char fingerprint = (char) (h >>> 48);
+		return fingerprint == 0 ? 1 : fingerprint;
+	}
+
+	/**
+	 * Since the two buckets of a fingerprint differ by a function of the fingerprint, either one is the alternate of
+	 * the other.
+	 */
+	private int alternate(int bucket, char fingerprint) {
+		return (bucket ^ Hashing.mix((int) fingerprint)) & bucketMask;
+	}
+
+}
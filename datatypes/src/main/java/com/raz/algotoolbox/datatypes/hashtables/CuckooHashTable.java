@@ -0,0 +1,358 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * A bucketized cuckoo hash table: every key may live in one of the 4 slots of either of its two buckets, so a lookup
+ * touches at most two buckets whatever the load.
+ * An insertion into two full buckets evicts a random entry of one of them, which moves to its other bucket and may
+ * evict an entry there in turn, up to a bounded number of evictions. When the walk fails, the table grows if it is
+ * loaded enough for that to help. Otherwise the failure is due to keys whose hash codes collide, and the homeless
+ * entry is kept in a small overflow table instead, created by the first such entry, which lookups consult only when
+ * it is not empty.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public class CuckooHashTable<K, V> implements HashTable<K, V> {
+
+	private static final int BUCKET_SIZE = 4;
+	private static final int BUCKET_SHIFT = 2;
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int MAX_EVICTIONS = 500;
+	private static final double MAX_LOAD = 0.9;
+	private static final double MIN_LOAD_TO_GROW = 0.5;
+
+	private final SplittableRandom random = new SplittableRandom();
+	private K[] keys;
+	private V[] values;
+	private int[] hashes;
+	private int bucketMask;
+	private int currentLoad;
+	private LinearProbingHashTable<K, V> overflow; // created by the first entry which needs it
+
+	/*
+	 * The entry left without a slot by a failed eviction walk, which is not necessarily the inserted entry.
+	 */
+	private K homelessKey;
+	private V homelessValue;
+	private int homelessHash;
+
+	public CuckooHashTable() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	@Override
+	public int size() {
+		return currentLoad + (overflow == null ? 0 : overflow.size());
+	}
+
+	/**
+	 * @return the number of slots of the table.
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		Objects.requireNonNull(key);
+		return indexOf(key, spread(key)) >= 0 || (hasOverflow() && overflow.containsKey(key));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null && Objects.equals(values[i], value)) {
+				return true;
+			}
+		}
+		return hasOverflow() && overflow.containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		Objects.requireNonNull(key);
+		int index = indexOf(key, spread(key));
+		if (index >= 0) {
+			return values[index];
+		}
+		return hasOverflow() ? overflow.get(key) : null;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = indexOf(key, keyHash);
+		if (index >= 0) {
+			V oldValue = values[index];
+			values[index] = value;
+			return oldValue;
+		}
+		if (hasOverflow() && overflow.containsKey(key)) {
+			return overflow.put(key, value);
+		}
+		if (keys.length * MAX_LOAD < currentLoad + 1) {
+			realloc(largerCapacity());
+		}
+		if (!place(key, value, keyHash)) {
+			if (currentLoad >= keys.length * MIN_LOAD_TO_GROW) {
+				realloc(largerCapacity()); // places the homeless entry as well
+			} else {
+				addToOverflow(homelessKey, homelessValue);
+				clearHomeless();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		Objects.requireNonNull(key);
+		int index = indexOf(key, spread(key));
+		if (index < 0) {
+			return hasOverflow() ? overflow.remove(key) : null;
+		}
+		V value = values[index];
+		keys[index] = null;
+		values[index] = null;
+		currentLoad--;
+		return value;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		m.forEach(this::put);
+	}
+
+	@Override
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+		currentLoad = 0;
+		overflow = null;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+		if (hasOverflow()) {
+			overflow.forEach(action);
+		}
+	}
+
+	@Override
+	public Iterator<K> keysIterator() {
+		return new Iterator<K>() {
+
+			private int index = findNextIndex(-1);
+			private int last = -1;
+			private boolean lastInOverflow;
+			private final Iterator<K> overflowIterator =
+					overflow == null ? Collections.<K>emptyIterator() : overflow.keysIterator();
+
+			@Override
+			public boolean hasNext() {
+				return index < keys.length || overflowIterator.hasNext();
+			}
+
+			@Override
+			public K next() {
+				if (index >= keys.length) {
+					lastInOverflow = true;
+					return overflowIterator.next();
+				}
+				last = index;
+				index = findNextIndex(index);
+				return keys[last];
+			}
+
+			@Override
+			public void remove() {
+				if (lastInOverflow) {
+					overflowIterator.remove();
+					return;
+				}
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				CuckooHashTable.this.remove(keys[last]); // removals never move the other entries
+				last = -1;
+			}
+
+			private int findNextIndex(int from) {
+				for (int i = from + 1; i < keys.length; ++i) {
+					if (keys[i] != null) {
+						return i;
+					}
+				}
+				return keys.length;
+			}
+		};
+	}
+
+	private int indexOf(Object key, int keyHash) {
+		int index = indexInBucket(firstBucket(keyHash), key, keyHash);
+		return index >= 0 ? index : indexInBucket(secondBucket(keyHash), key, keyHash);
+	}
+
+	private int indexInBucket(int bucket, Object key, int keyHash) {
+		int start = bucket << BUCKET_SHIFT;
+		for (int i = start; i < start + BUCKET_SIZE; ++i) {
+			if (hashes[i] == keyHash && keys[i] != null && keys[i].equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Places an entry whose key is not in the table, evicting entries along a random walk if both its buckets are
+	 * full, and counts it.
+	 * @return false iff the walk failed, in which case the entry left without a slot is the homeless entry.
+	 */
+	private boolean place(K key, V value, int keyHash) {
+		int bucket = firstBucket(keyHash);
+		int free = freeSlot(bucket);
+		if (free < 0) {
+			bucket = secondBucket(keyHash);
+			free = freeSlot(bucket);
+		}
+		currentLoad++;
+		if (free >= 0) {
+			set(free, key, value, keyHash);
+			return true;
+		}
+		if (random.nextBoolean()) {
+			bucket = firstBucket(keyHash);
+		}
+		for (int eviction = 0; eviction < MAX_EVICTIONS; ++eviction) {
+			int victim = (bucket << BUCKET_SHIFT) + random.nextInt(BUCKET_SIZE);
+			K k = keys[victim];
+			V v = values[victim];
+			int h = hashes[victim];
+			set(victim, key, value, keyHash);
+			key = k;
+			value = v;
+			keyHash = h;
+			int first = firstBucket(keyHash);
+			bucket = first == bucket ? secondBucket(keyHash) : first;
+			free = freeSlot(bucket);
+			if (free >= 0) {
+				set(free, key, value, keyHash);
+				return true;
+			}
+		}
+		currentLoad--;
+		homelessKey = key;
+		homelessValue = value;
+		homelessHash = keyHash;
+		return false;
+	}
+
+	private int freeSlot(int bucket) {
+		int start = bucket << BUCKET_SHIFT;
+		for (int i = start; i < start + BUCKET_SIZE; ++i) {
+			if (keys[i] == null) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void set(int index, K key, V value, int keyHash) {
+		keys[index] = key;
+		values[index] = value;
+		hashes[index] = keyHash;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		hashes = new int[capacity];
+		bucketMask = (capacity >>> BUCKET_SHIFT) - 1;
+	}
+
+	/**
+	 * Moves every entry, including the homeless one and those of the overflow table, into the given capacity.
+	 * Entries which still find no slot go to the overflow table.
+	 */
+	private void realloc(int newCapacity) {
+		K[] oldKeys = keys;
+		V[] oldValues = values;
+		int[] oldHashes = hashes;
+		K pendingKey = homelessKey;
+		V pendingValue = homelessValue;
+		int pendingHash = homelessHash;
+		clearHomeless();
+		allocate(newCapacity);
+		currentLoad = 0;
+		for (int j = 0; j < oldKeys.length; ++j) {
+			if (oldKeys[j] != null) {
+				reinsert(oldKeys[j], oldValues[j], oldHashes[j]);
+			}
+		}
+		if (pendingKey != null) {
+			reinsert(pendingKey, pendingValue, pendingHash);
+		}
+		if (overflow != null) {
+			LinearProbingHashTable<K, V> previousOverflow = overflow;
+			overflow = null;
+			previousOverflow.forEach((k, v) -> reinsert(k, v, spread(k)));
+		}
+	}
+
+	private boolean hasOverflow() {
+		return overflow != null && !overflow.isEmpty();
+	}
+
+	private void addToOverflow(K key, V value) {
+		if (overflow == null) {
+			overflow = new LinearProbingHashTable<>();
+		}
+		overflow.put(key, value);
+	}
+
+	private void reinsert(K key, V value, int keyHash) {
+		if (!place(key, value, keyHash)) {
+			addToOverflow(homelessKey, homelessValue);
+			clearHomeless();
+		}
+	}
+
+	private void clearHomeless() {
+		homelessKey = null;
+		homelessValue = null;
+	}
+
+	private int largerCapacity() {
+		if (keys.length == Hashing.MAX_CAPACITY) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		return keys.length << 1;
+	}
+
+	private int firstBucket(int keyHash) {
+		return keyHash & bucketMask;
+	}
+
+	/**
+	 * Derived from the high bits of the hash code, so that it does not depend on the bits which pick the first bucket.
+	 */
+	private int secondBucket(int keyHash) {
+		return Hashing.mix(Integer.reverse(keyHash)) & bucketMask;
+	}
+
+	private static int spread(Object key) {
+		return Hashing.mix(key.hashCode());
+	}
+
+}
@@ -0,0 +1,325 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash table whose slots are addressed by a minimal perfect hash function, built with the CHD
+ * (compress, hash and displace) algorithm: there are exactly as many slots as keys, and every key has a slot of its
+ * own. The keys are hashed into small buckets, and every bucket is given a displacement which sends all of its keys
+ * to free slots. A lookup therefore reads the displacement of its bucket and then a single slot, whose key it only
+ * has to compare once.
+ * Keys which share their hash code with another key cannot be given slots of their own by any displacement, so all
+ * but one of them are kept in a small overflow table instead, which exists only if there are such keys.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public final class FrozenHashTable<K, V> implements HashTable<K, V> {
+
+	private static final int BUCKET_SIZE = 3;
+	private static final int MAX_DISPLACEMENT = 1 << 16;
+	private static final int MAX_ATTEMPTS = 32;
+	private static final String FROZEN = "The hash table is frozen";
+
+	private final K[] keys;
+	private final V[] values;
+	/*
+	 * The displacement of every bucket. A bucket of a single key needs no search: it is sent to any free slot, whose
+	 * complement is stored instead of a displacement.
+	 */
+	private int[] displacements;
+	private int seed;
+	private LinearProbingHashTable<K, V> overflow; // created by the first key set aside, and never emptied
+
+	/**
+	 * Builds a table holding the entries of the given one, which takes time linear in their number.
+	 * @throws IllegalStateException in the very unlikely case that no perfect hash function could be found.
+	 */
+	@SuppressWarnings("unchecked")
+	public FrozenHashTable(HashTable<? extends K, ? extends V> source) {
+		Object[] sourceKeys = new Object[source.size()];
+		Object[] sourceValues = new Object[source.size()];
+		int[] count = {0};
+		source.forEach((k, v) -> {
+			sourceKeys[count[0]] = k;
+			sourceValues[count[0]++] = v;
+		});
+		int[] hashCodes = new int[sourceKeys.length];
+		for (int i = 0; i < hashCodes.length; ++i) {
+			hashCodes[i] = sourceKeys[i].hashCode();
+		}
+		int[] slots = null;
+		for (int attempt = 0; slots == null; ++attempt) {
+			if (attempt == MAX_ATTEMPTS) {
+				throw new IllegalStateException("No perfect hash function was found for the keys");
+			}
+			seed = attempt;
+			slots = displace(hashCodes);
+		}
+		int capacity = 0;
+		for (int slot : slots) {
+			if (slot >= 0) {
+				capacity++;
+			}
+		}
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		for (int i = 0; i < slots.length; ++i) {
+			if (slots[i] < 0) {
+				if (overflow == null) {
+					overflow = new LinearProbingHashTable<>();
+				}
+				overflow.put((K) sourceKeys[i], (V) sourceValues[i]);
+			} else {
+				keys[slots[i]] = (K) sourceKeys[i];
+				values[slots[i]] = (V) sourceValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Hashes the keys into buckets, and places the buckets from the largest to the smallest, trying displacements for
+	 * each until all of its keys land in distinct free slots. Keys which share their hash code share their bucket too,
+	 * where all but the first of them are set aside for the overflow table.
+	 * @return the slot of every key, -1 for the keys set aside, or null if a bucket could not be placed.
+	 */
+	private int[] displace(int[] hashCodes) {
+		int n = hashCodes.length;
+		displacements = new int[Math.max(1, (n + BUCKET_SIZE - 1) / BUCKET_SIZE)];
+		long[] hashes = new long[n];
+		int[] bucketStarts = new int[displacements.length + 1];
+		for (int i = 0; i < n; ++i) {
+			hashes[i] = hash(hashCodes[i]);
+			bucketStarts[bucketOf(hashes[i]) + 1]++;
+		}
+		for (int b = 0; b < displacements.length; ++b) {
+			bucketStarts[b + 1] += bucketStarts[b];
+		}
+		int[] members = new int[n];
+		int[] fill = Arrays.copyOf(bucketStarts, displacements.length);
+		for (int i = 0; i < n; ++i) {
+			members[fill[bucketOf(hashes[i])]++] = i;
+		}
+		int[] slots = new int[n];
+		int[] bucketSizes = new int[displacements.length];
+		int maxBucketSize = 0;
+		int capacity = n;
+		for (int b = 0; b < displacements.length; ++b) {
+			int start = bucketStarts[b];
+			int size = 0;
+			for (int j = start; j < bucketStarts[b + 1]; ++j) {
+				int i = members[j];
+				if (sharesHashCode(hashCodes, members, start, size, hashCodes[i])) {
+					slots[i] = -1;
+					capacity--;
+				} else {
+					members[start + size++] = i;
+				}
+			}
+			bucketSizes[b] = size;
+			maxBucketSize = Math.max(maxBucketSize, size);
+		}
+		// buckets sorted by decreasing size
+		int[] sizeStarts = new int[maxBucketSize + 2];
+		for (int size : bucketSizes) {
+			sizeStarts[maxBucketSize - size + 1]++;
+		}
+		for (int s = 0; s <= maxBucketSize; ++s) {
+			sizeStarts[s + 1] += sizeStarts[s];
+		}
+		int[] buckets = new int[displacements.length];
+		for (int b = 0; b < displacements.length; ++b) {
+			buckets[sizeStarts[maxBucketSize - bucketSizes[b]]++] = b;
+		}
+		boolean[] taken = new boolean[capacity];
+		int[] bucketSlots = new int[maxBucketSize];
+		int free = 0;
+		for (int b : buckets) {
+			int start = bucketStarts[b];
+			int size = bucketSizes[b];
+			if (size == 0) {
+				break;
+			}
+			if (size == 1) {
+				while (taken[free]) {
+					free++;
+				}
+				taken[free] = true;
+				slots[members[start]] = free;
+				displacements[b] = ~free;
+				continue;
+			}
+			int d = findDisplacement(hashes, members, start, size, taken, bucketSlots);
+			if (d < 0) {
+				return null;
+			}
+			displacements[b] = d;
+			for (int j = 0; j < size; ++j) {
+				taken[bucketSlots[j]] = true;
+				slots[members[start + j]] = bucketSlots[j];
+			}
+		}
+		return slots;
+	}
+
+	private static boolean sharesHashCode(int[] hashCodes, int[] members, int start, int size, int hashCode) {
+		for (int j = start; j < start + size; ++j) {
+			if (hashCodes[members[j]] == hashCode) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int findDisplacement(long[] hashes, int[] members, int start, int size, boolean[] taken, int[] bucketSlots) {
+		for (int d = 0; d < MAX_DISPLACEMENT; ++d) {
+			int j = 0;
+			for (; j < size; ++j) {
+				int slot = slotOf(hashes[members[start + j]], d, taken.length);
+				if (taken[slot] || contains(bucketSlots, j, slot)) {
+					break;
+				}
+				bucketSlots[j] = slot;
+			}
+			if (j == size) {
+				return d;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean contains(int[] array, int length, int value) {
+		for (int i = 0; i < length; ++i) {
+			if (array[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return keys.length + (overflow == null ? 0 : overflow.size());
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(Objects.requireNonNull(key)) >= 0 || (overflow != null && overflow.containsKey(key));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (V v : values) {
+			if (Objects.equals(v, value)) {
+				return true;
+			}
+		}
+		return overflow != null && overflow.containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		int index = indexOf(Objects.requireNonNull(key));
+		if (index >= 0) {
+			return values[index];
+		}
+		return overflow == null ? null : overflow.get(key);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException(FROZEN);
+	}
+
+	@Override
+	public V remove(Object key) {
+		throw new UnsupportedOperationException(FROZEN);
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		throw new UnsupportedOperationException(FROZEN);
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException(FROZEN);
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (int i = 0; i < keys.length; ++i) {
+			action.accept(keys[i], values[i]);
+		}
+		if (overflow != null) {
+			overflow.forEach(action);
+		}
+	}
+
+	/**
+	 * @return an iterator which does not support removal.
+	 */
+	@Override
+	public Iterator<K> keysIterator() {
+		return new Iterator<K>() {
+
+			private int index;
+			private final Iterator<K> overflowIterator =
+					overflow == null ? Collections.<K>emptyIterator() : overflow.keysIterator();
+
+			@Override
+			public boolean hasNext() {
+				return index < keys.length || overflowIterator.hasNext();
+			}
+
+			@Override
+			public K next() {
+				if (index < keys.length) {
+					return keys[index++];
+				}
+				if (!overflowIterator.hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return overflowIterator.next();
+			}
+		};
+	}
+
+	@Override
+	public Spliterator<K> keySpliterator() {
+		if (overflow != null) {
+			return HashTable.super.keySpliterator();
+		}
+		return Spliterators.spliterator(keys, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+	}
+
+	private int indexOf(Object key) {
+		if (keys.length == 0) {
+			return -1;
+		}
+		long h = hash(key.hashCode());
+		int d = displacements[bucketOf(h)];
+		int index = d < 0 ? ~d : slotOf(h, d, keys.length);
+		return keys[index].equals(key) ? index : -1;
+	}
+
+	private long hash(int hashCode) {
+		return Hashing.mix64(((long) seed << 32) | (hashCode & 0xFFFFFFFFL));
+	}
+
+	private int bucketOf(long hash) {
+		return Hashing.reduce((int) (hash >>> 32), displacements.length);
+	}
+
+	private static int slotOf(long hash, int displacement, int capacity) {
+		return Hashing.reduce((int) Hashing.mix64(hash + displacement), capacity);
+	}
+
+}
@@ -0,0 +1,197 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The map operations shared by the hash tables of this package, so that a container can be backed by any of them.
+ * None of the tables accepts null keys.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public interface HashTable<K, V> {
+
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	boolean containsKey(Object key);
+
+	boolean containsValue(Object value);
+
+	V get(Object key);
+
+	/**
+	 * @return the previous value of the key, or null if there was none.
+	 */
+	V put(K key, V value);
+
+	/**
+	 * @return the value of the removed key, or null if there was none.
+	 */
+	V remove(Object key);
+
+	void putAll(Map<? extends K, ? extends V> m);
+
+	/*
+	 * The following operations behave like their namesakes of Map, whose default implementations they copy. Tables
+	 * which can probe for the key once and update its slot in place override them.
+	 */
+
+	default V getOrDefault(Object key, V defaultValue) {
+		V value = get(key);
+		return value != null || containsKey(key) ? value : defaultValue;
+	}
+
+	default V putIfAbsent(K key, V value) {
+		V oldValue = get(key);
+		return oldValue == null ? put(key, value) : oldValue;
+	}
+
+	default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		V value = get(key);
+		if (value == null) {
+			value = mappingFunction.apply(key);
+			if (value != null) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
+
+	default V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		V oldValue = get(key);
+		if (oldValue == null) {
+			return null;
+		}
+		V value = remappingFunction.apply(key, oldValue);
+		if (value == null) {
+			remove(key);
+		} else {
+			put(key, value);
+		}
+		return value;
+	}
+
+	default V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		V oldValue = get(key);
+		V value = remappingFunction.apply(key, oldValue);
+		if (value != null) {
+			put(key, value);
+		} else if (oldValue != null || containsKey(key)) {
+			remove(key);
+		}
+		return value;
+	}
+
+	default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(value);
+		V oldValue = get(key);
+		V newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+		if (newValue == null) {
+			remove(key);
+		} else {
+			put(key, newValue);
+		}
+		return newValue;
+	}
+
+	void clear();
+
+	void forEach(BiConsumer<? super K, ? super V> action);
+
+	/**
+	 * @return an iterator which supports removal. The table must not be modified otherwise while it is in use.
+	 */
+	Iterator<K> keysIterator();
+
+	/**
+	 * Like {@link #keysIterator()}. Setting the value of an entry writes through to the table.
+	 */
+	default Iterator<Map.Entry<K, V>> entriesIterator() {
+		Iterator<K> keys = keysIterator();
+		return new Iterator<Map.Entry<K, V>>() {
+
+			@Override
+			public boolean hasNext() {
+				return keys.hasNext();
+			}
+
+			@Override
+			public Map.Entry<K, V> next() {
+				K k = keys.next();
+				return new AbstractMap.SimpleEntry<K, V>(k, get(k)) {
+
+					@Override
+					public V setValue(V value) {
+						put(k, value);
+						return super.setValue(value);
+					}
+				};
+			}
+
+			@Override
+			public void remove() {
+				keys.remove();
+			}
+		};
+	}
+
+	default Spliterator<K> keySpliterator() {
+		return Spliterators.spliterator(keysIterator(), size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+
+	default Spliterator<Map.Entry<K, V>> entrySpliterator() {
+		return Spliterators.spliterator(entriesIterator(), size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+
+	/**
+	 * Performs the action on every entry, using the common fork-join pool. The table must not be modified meanwhile.
+	 */
+	default void parallelForEach(BiConsumer<? super K, ? super V> action) {
+		parallelEntries().forEach(e -> action.accept(e.getKey(), e.getValue()));
+	}
+
+	/**
+	 * Transforms every entry in parallel, skipping null results, and combines the results with the reducer.
+	 * The table must not be modified meanwhile.
+	 * @return the combined result, or null if there was none.
+	 */
+	default <U> U parallelReduce(BiFunction<? super K, ? super V, ? extends U> transformer, BinaryOperator<U> reducer) {
+		return parallelEntries()
+				.<U>map(e -> transformer.apply(e.getKey(), e.getValue()))
+				.filter(Objects::nonNull)
+				.reduce(reducer)
+				.orElse(null);
+	}
+
+	/**
+	 * Applies the search function to the entries in parallel until it returns a non null result for any of them.
+	 * The table must not be modified meanwhile.
+	 * @return a non null result of the search function, or null if there was none.
+	 */
+	default <U> U parallelSearch(BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+		return parallelEntries()
+				.<U>map(e -> searchFunction.apply(e.getKey(), e.getValue()))
+				.filter(Objects::nonNull)
+				.findAny()
+				.orElse(null);
+	}
+
+	default Stream<Map.Entry<K, V>> parallelEntries() {
+		return StreamSupport.stream(entrySpliterator(), true);
+	}
+
+}
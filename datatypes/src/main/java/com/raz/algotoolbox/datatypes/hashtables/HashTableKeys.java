@@ -0,0 +1,60 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Adapts a hash table to a key table by mapping every key to the same dummy value.
+ */
+final class HashTableKeys<K> implements KeyTable<K> {
+
+	private static final Object PRESENT = new Object();
+
+	private final HashTable<K, Object> table;
+
+	HashTableKeys(HashTable<K, Object> table) {
+		this.table = table;
+	}
+
+	@Override
+	public int size() {
+		return table.size();
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		return table.containsKey(key);
+	}
+
+	@Override
+	public boolean add(K key) {
+		return table.putIfAbsent(key, PRESENT) == null;
+	}
+
+	@Override
+	public boolean remove(Object key) {
+		return table.remove(key) != null;
+	}
+
+	@Override
+	public void clear() {
+		table.clear();
+	}
+
+	@Override
+	public void forEach(Consumer<? super K> action) {
+		table.forEach((k, v) -> action.accept(k));
+	}
+
+	@Override
+	public Iterator<K> keysIterator() {
+		return table.keysIterator();
+	}
+
+	@Override
+	public Spliterator<K> keySpliterator() {
+		return table.keySpliterator();
+	}
+
+}
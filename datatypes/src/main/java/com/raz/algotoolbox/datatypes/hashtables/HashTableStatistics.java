@@ -0,0 +1,109 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Arrays;
+
+/**
+ * A snapshot of the statistics gathered by a hash table since it was created.
+ * Probe lengths count the slots a lookup examined, so a key found in its home slot has a probe length of 1. They are
+ * kept in a histogram whose bucket {@code i} counts the lookups which examined between {@code 2^i} and
+ * {@code 2^(i+1) - 1} slots.
+ */
+public final class HashTableStatistics {
+
+	static final int HISTOGRAM_BUCKETS = Integer.SIZE;
+
+	private final long[] hitProbeLengths;
+	private final long[] missProbeLengths;
+	private final int longestCluster;
+	private final long growCount;
+	private final long shrinkCount;
+	private final long growNanos;
+	private final long shrinkNanos;
+	private final long shiftedEntries;
+
+	HashTableStatistics(long[] hitProbeLengths, long[] missProbeLengths, int longestCluster, long growCount,
+			long shrinkCount, long growNanos, long shrinkNanos, long shiftedEntries) {
+		this.hitProbeLengths = hitProbeLengths;
+		this.missProbeLengths = missProbeLengths;
+		this.longestCluster = longestCluster;
+		this.growCount = growCount;
+		this.shrinkCount = shrinkCount;
+		this.growNanos = growNanos;
+		this.shrinkNanos = shrinkNanos;
+		this.shiftedEntries = shiftedEntries;
+	}
+
+	static int histogramBucket(int probeLength) {
+		return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(probeLength);
+	}
+
+	/**
+	 * @return the histogram of the probe lengths of lookups which found their key.
+	 */
+	public long[] getHitProbeLengths() {
+		return hitProbeLengths.clone();
+	}
+
+	/**
+	 * @return the histogram of the probe lengths of lookups which did not find their key.
+	 */
+	public long[] getMissProbeLengths() {
+		return missProbeLengths.clone();
+	}
+
+	public long getHitCount() {
+		return Arrays.stream(hitProbeLengths).sum();
+	}
+
+	public long getMissCount() {
+		return Arrays.stream(missProbeLengths).sum();
+	}
+
+	/**
+	 * @return the largest number of consecutive used slots when the snapshot was taken.
+	 */
+	public int getLongestCluster() {
+		return longestCluster;
+	}
+
+	public long getGrowCount() {
+		return growCount;
+	}
+
+	public long getShrinkCount() {
+		return shrinkCount;
+	}
+
+	/**
+	 * @return the time spent moving entries into larger arrays, including the steps of incremental resizes.
+	 */
+	public long getGrowNanos() {
+		return growNanos;
+	}
+
+	/**
+	 * @return the time spent moving entries into smaller arrays, including the steps of incremental resizes.
+	 */
+	public long getShrinkNanos() {
+		return shrinkNanos;
+	}
+
+	/**
+	 * @return the number of entries moved back to fill the slot of a removed entry.
+	 */
+	public long getShiftedEntries() {
+		return shiftedEntries;
+	}
+
+	@Override
+	public String toString() {
+		return "HashTableStatistics{hits=" + getHitCount() + ", misses=" + getMissCount()
+				+ ", hitProbeLengths=" + Arrays.toString(hitProbeLengths)
+				+ ", missProbeLengths=" + Arrays.toString(missProbeLengths)
+				+ ", longestCluster=" + longestCluster
+				+ ", grows=" + growCount + " in " + growNanos + "ns"
+				+ ", shrinks=" + shrinkCount + " in " + shrinkNanos + "ns"
+				+ ", shiftedEntries=" + shiftedEntries + "}";
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+/**
+ * Hash mixing and capacity helpers shared by the hash tables in this package.
+ */
+final class Hashing {
+
+	static final int MAX_CAPACITY = 1 << 30;
+
+	private static final int INT_PHI = 0x9E3779B9;
+	private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+	private Hashing() {}
+
+	/**
+	 * Spreads the bits of a 32-bit hash so that the low bits, which are used to index a power of two table,
+	 * depend on all the bits of the input.
+	 */
+	static int mix(int x) {
+		int h = x * INT_PHI;
+		return h ^ (h >>> 16);
+	}
+
+	static int mix(long x) {
+		long h = x * LONG_PHI;
+		h ^= h >>> 32;
+		return (int) (h ^ (h >>> 16));
+	}
+
+	/**
+	 * The 32-bit finalizer of MurmurHash3, which costs more than {@link #mix(int)} but leaves no structure at all in
+	 * the hash codes of consecutive keys, for tables which are sensitive to local crowding.
+	 */
+	static int avalanche(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * The 64-bit finalizer of MurmurHash3: every bit of the result depends on every bit of the input.
+	 */
+	static long mix64(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		return h ^ (h >>> 33);
+	}
+
+	/**
+	 * Maps a 32-bit hash uniformly onto {@code [0, n)} by a multiplication rather than a division, so the range needs
+	 * not be a power of two.
+	 */
+	static int reduce(int hash, int n) {
+		return (int) (((hash & 0xFFFFFFFFL) * n) >>> 32);
+	}
+
+	/**
+	 * @return the smallest power of two which is at least {@code capacity}, bounded by {@link #MAX_CAPACITY}.
+	 */
+	static int powerOfTwoCapacity(int capacity) {
+		if (capacity >= MAX_CAPACITY) {
+			return MAX_CAPACITY;
+		}
+		return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+	}
+
+}
@@ -0,0 +1,338 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A hash table which uses hopscotch hashing: every key lives within {@value #NEIGHBORHOOD} slots of its home slot, and
+ * every home slot keeps a bitmap of the slots of its neighborhood which hold its keys. A lookup therefore reads the
+ * bitmap and then only the slots it points at, all within a short distance of each other, even at high loads.
+ * An insertion takes the first free slot after the home slot. While that slot is too far from home, an entry between
+ * them whose own neighborhood covers the free slot hops into it, bringing the free slot closer. The table grows
+ * until the entry fits. Only an entry whose home neighborhood is full of keys sharing its hash code, which no capacity
+ * can spread out, is kept in a small overflow table instead, created by the first such entry, which lookups consult
+ * only when it is not empty.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public class HopscotchHashTable<K, V> implements HashTable<K, V> {
+
+	private static final int NEIGHBORHOOD = 32;
+	private static final int INITIAL_CAPACITY = 32;
+	private static final int MAX_FREE_SLOT_DISTANCE = 512;
+	private static final double MAX_LOAD = 0.9;
+
+	private K[] keys;
+	private V[] values;
+	private int[] hashes;
+	private int[] neighborhoods;
+	private int mask;
+	private int currentLoad;
+	private LinearProbingHashTable<K, V> overflow; // created by the first entry which needs it
+
+	public HopscotchHashTable() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	@Override
+	public int size() {
+		return currentLoad + (overflow == null ? 0 : overflow.size());
+	}
+
+	/**
+	 * @return the number of slots of the table.
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(Objects.requireNonNull(key), spread(key)) >= 0
+				|| (hasOverflow() && overflow.containsKey(key));
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null && Objects.equals(values[i], value)) {
+				return true;
+			}
+		}
+		return hasOverflow() && overflow.containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		int index = indexOf(Objects.requireNonNull(key), spread(key));
+		if (index >= 0) {
+			return values[index];
+		}
+		return hasOverflow() ? overflow.get(key) : null;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = indexOf(key, keyHash);
+		if (index >= 0) {
+			V oldValue = values[index];
+			values[index] = value;
+			return oldValue;
+		}
+		if (hasOverflow() && overflow.containsKey(key)) {
+			return overflow.put(key, value);
+		}
+		if (keys.length * MAX_LOAD < currentLoad + 1) {
+			realloc(largerCapacity());
+		}
+		while (!place(key, value, keyHash)) {
+			if (isSaturated(keyHash) || keys.length == Hashing.MAX_CAPACITY) {
+				addToOverflow(key, value); // which size() counts, unlike currentLoad
+				return null;
+			}
+			realloc(largerCapacity());
+		}
+		currentLoad++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = indexOf(key, keyHash);
+		if (index < 0) {
+			return hasOverflow() ? overflow.remove(key) : null;
+		}
+		V value = values[index];
+		int home = keyHash & mask;
+		neighborhoods[home] &= ~(1 << ((index - home) & mask));
+		keys[index] = null;
+		values[index] = null;
+		currentLoad--;
+		return value;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		m.forEach(this::put);
+	}
+
+	@Override
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+		currentLoad = 0;
+		overflow = null;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+		if (hasOverflow()) {
+			overflow.forEach(action);
+		}
+	}
+
+	@Override
+	public Iterator<K> keysIterator() {
+		return new Iterator<K>() {
+
+			private int index = findNextIndex(-1);
+			private int last = -1;
+			private boolean lastInOverflow;
+			private final Iterator<K> overflowIterator =
+					overflow == null ? Collections.<K>emptyIterator() : overflow.keysIterator();
+
+			@Override
+			public boolean hasNext() {
+				return index < keys.length || overflowIterator.hasNext();
+			}
+
+			@Override
+			public K next() {
+				if (index >= keys.length) {
+					lastInOverflow = true;
+					return overflowIterator.next();
+				}
+				last = index;
+				index = findNextIndex(index);
+				return keys[last];
+			}
+
+			@Override
+			public void remove() {
+				if (lastInOverflow) {
+					overflowIterator.remove();
+					return;
+				}
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				HopscotchHashTable.this.remove(keys[last]); // removals never move the other entries
+				last = -1;
+			}
+
+			private int findNextIndex(int from) {
+				for (int i = from + 1; i < keys.length; ++i) {
+					if (keys[i] != null) {
+						return i;
+					}
+				}
+				return keys.length;
+			}
+		};
+	}
+
+	private int indexOf(Object key, int keyHash) {
+		int home = keyHash & mask;
+		for (int bits = neighborhoods[home]; bits != 0; bits &= bits - 1) {
+			int index = (home + Integer.numberOfTrailingZeros(bits)) & mask;
+			if (hashes[index] == keyHash && keys[index].equals(key)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Places an entry whose key is not in the table within the neighborhood of its home slot, without counting it.
+	 * @return false iff no free slot could be brought into the neighborhood, in which case the table must grow.
+	 */
+	private boolean place(K key, V value, int keyHash) {
+		int home = keyHash & mask;
+		int free = home;
+		int distance = 0;
+		int maxDistance = Math.min(MAX_FREE_SLOT_DISTANCE, keys.length);
+		while (keys[free] != null) {
+			if (++distance == maxDistance) {
+				return false;
+			}
+			free = (free + 1) & mask;
+		}
+		while (distance >= NEIGHBORHOOD) {
+			free = hopCloser(free);
+			if (free < 0) {
+				return false;
+			}
+			distance = (free - home) & mask;
+		}
+		keys[free] = key;
+		values[free] = value;
+		hashes[free] = keyHash;
+		neighborhoods[home] |= 1 << distance;
+		return true;
+	}
+
+	/**
+	 * @return whether every slot of the neighborhood of the home slot holds a key with the given hash code, so that
+	 * the neighborhood stays full whatever the capacity.
+	 */
+	private boolean isSaturated(int keyHash) {
+		int home = keyHash & mask;
+		if (neighborhoods[home] != -1) {
+			return false;
+		}
+		for (int d = 0; d < NEIGHBORHOOD; ++d) {
+			if (hashes[(home + d) & mask] != keyHash) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Looks for an entry before the free slot which may move into it and stay within its own neighborhood, starting
+	 * from the farthest home slot, and moves it.
+	 * @return the slot the entry moved out of, or -1 if no entry may move.
+	 */
+	private int hopCloser(int free) {
+		for (int d = NEIGHBORHOOD - 1; d > 0; --d) {
+			int home = (free - d) & mask;
+			int bits = neighborhoods[home] & ((1 << d) - 1); // entries of the home slot before the free slot
+			if (bits != 0) {
+				int offset = Integer.numberOfTrailingZeros(bits);
+				int index = (home + offset) & mask;
+				keys[free] = keys[index];
+				values[free] = values[index];
+				hashes[free] = hashes[index];
+				keys[index] = null;
+				values[index] = null;
+				neighborhoods[home] = (neighborhoods[home] & ~(1 << offset)) | (1 << d);
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		hashes = new int[capacity];
+		neighborhoods = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Moves every entry, including those of the overflow table, into the given capacity. Entries which still do not
+	 * fit go to the overflow table.
+	 */
+	private void realloc(int newCapacity) {
+		K[] oldKeys = keys;
+		V[] oldValues = values;
+		int[] oldHashes = hashes;
+		LinearProbingHashTable<K, V> oldOverflow = overflow;
+		allocate(newCapacity);
+		currentLoad = 0;
+		overflow = null;
+		for (int j = 0; j < oldKeys.length; ++j) {
+			if (oldKeys[j] != null) {
+				reinsert(oldKeys[j], oldValues[j], oldHashes[j]);
+			}
+		}
+		if (oldOverflow != null) {
+			oldOverflow.forEach((k, v) -> reinsert(k, v, spread(k)));
+		}
+	}
+
+	private boolean hasOverflow() {
+		return overflow != null && !overflow.isEmpty();
+	}
+
+	private void addToOverflow(K key, V value) {
+		if (overflow == null) {
+			overflow = new LinearProbingHashTable<>();
+		}
+		overflow.put(key, value);
+	}
+
+	private void reinsert(K key, V value, int keyHash) {
+		if (place(key, value, keyHash)) {
+			currentLoad++;
+		} else {
+			addToOverflow(key, value);
+		}
+	}
+
+	private int largerCapacity() {
+		if (keys.length == Hashing.MAX_CAPACITY) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		return keys.length << 1;
+	}
+
+	/**
+	 * Sequential keys under the cheaper {@link Hashing#mix(int)} crowd some neighborhoods enough to force early growth.
+	 */
+	private static int spread(Object key) {
+		return Hashing.avalanche(key.hashCode());
+	}
+
+}
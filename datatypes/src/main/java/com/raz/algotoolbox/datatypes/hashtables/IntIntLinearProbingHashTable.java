@@ -0,0 +1,271 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import com.raz.algotoolbox.internal.IntIntConsumer;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A linear probing hash table specialized for {@code int} keys and {@code int} values.
+ * Keys and values are kept in parallel arrays and an empty slot is marked by the key {@code 0}, so no operation on
+ * the table allocates. The key {@code 0} itself is stored outside of the arrays.
+ * Since values are primitives, lookups of absent keys return the table's no-entry value instead of null.
+ */
+public class IntIntLinearProbingHashTable {
+
+	private static final int INITIAL_CAPACITY = 8;
+	private static final int EMPTY = 0;
+
+	private final int noEntryValue;
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int currentLoad;
+	private boolean hasEmptyKey;
+	private int emptyKeyValue;
+
+	public IntIntLinearProbingHashTable() {
+		this(0);
+	}
+
+	/**
+	 * @param noEntryValue is the value returned by {@link #get}, {@link #put} and {@link #remove} when there is
+	 *                     no entry for the given key.
+	 */
+	public IntIntLinearProbingHashTable(int noEntryValue) {
+		this.noEntryValue = noEntryValue;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	public int getNoEntryValue() {
+		return noEntryValue;
+	}
+
+	public int size() {
+		return hasEmptyKey ? currentLoad + 1 : currentLoad;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean containsKey(int key) {
+		return key == EMPTY ? hasEmptyKey : indexOf(key) >= 0;
+	}
+
+	public boolean containsValue(int value) {
+		if (hasEmptyKey && emptyKeyValue == value) {
+			return true;
+		}
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != EMPTY && values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int get(int key) {
+		return getOrDefault(key, noEntryValue);
+	}
+
+	public int getOrDefault(int key, int defaultValue) {
+		if (key == EMPTY) {
+			return hasEmptyKey ? emptyKeyValue : defaultValue;
+		}
+		int index = indexOf(key);
+		return index < 0 ? defaultValue : values[index];
+	}
+
+	public int put(int key, int value) {
+		if (key == EMPTY) {
+			int oldValue = hasEmptyKey ? emptyKeyValue : noEntryValue;
+			emptyKeyValue = value;
+			hasEmptyKey = true;
+			return oldValue;
+		}
+		if (keys.length * 0.8 < currentLoad) {
+			realloc(largerCapacity());
+		}
+		int i = Hashing.mix(key) & mask;
+		for (int k = keys[i]; k != EMPTY; k = keys[i]) {
+			if (k == key) {
+				int oldValue = values[i];
+				values[i] = value;
+				return oldValue;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		currentLoad++;
+		return noEntryValue;
+	}
+
+	/**
+	 * Adds {@code increment} to the value of the key, treating an absent key as if it was mapped to the no-entry value.
+	 * @return the updated value.
+	 */
+	public int addTo(int key, int increment) {
+		if (key == EMPTY) {
+			emptyKeyValue = (hasEmptyKey ? emptyKeyValue : noEntryValue) + increment;
+			hasEmptyKey = true;
+			return emptyKeyValue;
+		}
+		if (keys.length * 0.8 < currentLoad) {
+			realloc(largerCapacity());
+		}
+		int i = Hashing.mix(key) & mask;
+		for (int k = keys[i]; k != EMPTY; k = keys[i]) {
+			if (k == key) {
+				return values[i] += increment;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = noEntryValue + increment;
+		currentLoad++;
+		return values[i];
+	}
+
+	public int remove(int key) {
+		if (key == EMPTY) {
+			int value = hasEmptyKey ? emptyKeyValue : noEntryValue;
+			hasEmptyKey = false;
+			return value;
+		}
+		int index = indexOf(key);
+		if (index < 0) {
+			return noEntryValue;
+		}
+		int value = values[index];
+		keys[index] = EMPTY;
+		currentLoad--;
+		if (currentLoad < 0.1 * keys.length && keys.length > INITIAL_CAPACITY) {
+			realloc(smallerCapacity()); // rehashing as a side effect
+		} else {
+			fixTable(index);
+		}
+		return value;
+	}
+
+	public void putAll(Map<? extends Integer, ? extends Integer> m) {
+		m.forEach((k, v) -> put(k, v));
+	}
+
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+		currentLoad = 0;
+		hasEmptyKey = false;
+	}
+
+	public void forEachEntry(IntIntConsumer action) {
+		if (hasEmptyKey) {
+			action.accept(EMPTY, emptyKeyValue);
+		}
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != EMPTY) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	public PrimitiveIterator.OfInt keysIterator() {
+		return new PrimitiveIterator.OfInt() {
+
+			private boolean emptyKeyPending = hasEmptyKey;
+			private int index = findNextIndex(-1);
+
+			@Override
+			public boolean hasNext() {
+				return emptyKeyPending || index < keys.length;
+			}
+
+			@Override
+			public int nextInt() {
+				if (emptyKeyPending) {
+					emptyKeyPending = false;
+					return EMPTY;
+				}
+				if (index >= keys.length) {
+					throw new NoSuchElementException();
+				}
+				int k = keys[index];
+				index = findNextIndex(index);
+				return k;
+			}
+
+			private int findNextIndex(int from) {
+				for (int i = from + 1; i < keys.length; ++i) {
+					if (keys[i] != EMPTY) {
+						return i;
+					}
+				}
+				return keys.length;
+			}
+		};
+	}
+
+	private int indexOf(int key) {
+		int i = Hashing.mix(key) & mask;
+		for (int k = keys[i]; k != EMPTY; k = keys[i]) {
+			if (k == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	private void realloc(int newCapacity) {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(newCapacity);
+		for (int j = 0; j < oldKeys.length; ++j) {
+			if (oldKeys[j] != EMPTY) {
+				int i = Hashing.mix(oldKeys[j]) & mask;
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	/**
+	 * Shifts back the entries following the slot which has just been emptied, so that no probe sequence is broken.
+	 */
+	private void fixTable(int start) {
+		int i = (start + 1) & mask;
+		while (keys[i] != EMPTY) {
+			int hash = Hashing.mix(keys[i]) & mask;
+			if (start <= i ? (hash <= start || hash > i) : (hash <= start && hash > i)) {
+				keys[start] = keys[i];
+				values[start] = values[i];
+				keys[i] = EMPTY;
+				start = i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private int largerCapacity() {
+		if (keys.length == Hashing.MAX_CAPACITY) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		return keys.length << 1;
+	}
+
+	private int smallerCapacity() {
+		return Math.max(keys.length >>> 1, INITIAL_CAPACITY);
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+/**
+ * The operations of the approximate membership filters of this package on hash codes which are already mixed, such as
+ * the spread hash codes cached by {@link LinearProbingHashTable}. A filter may answer that it contains a hash code
+ * which was never added, but never that it lacks one which was.
+ */
+interface KeyFilter {
+
+	/**
+	 * @return false iff the filter is too full to hold the hash code, which it then does not hold.
+	 */
+	boolean addHash(int hash);
+
+	boolean mightContainHash(int hash);
+
+	/**
+	 * Removes a hash code which was added before.
+	 * @return false iff the filter does not support removals, in which case it still holds the hash code.
+	 */
+	boolean removeHash(int hash);
+
+}
@@ -0,0 +1,57 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * The set operations shared by the key-only tables of this package, so that a container can be backed by any of
+ * them. None of the tables accepts null keys.
+ * @param <K> is the type of the keys in the table.
+ */
+public interface KeyTable<K> {
+
+	int size();
+
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+
+	boolean contains(Object key);
+
+	/**
+	 * @return true iff the key was not in the table.
+	 */
+	boolean add(K key);
+
+	/**
+	 * @return true iff the key was in the table.
+	 */
+	boolean remove(Object key);
+
+	void clear();
+
+	void forEach(Consumer<? super K> action);
+
+	/**
+	 * @return an iterator which supports removal. The table must not be modified otherwise while it is in use.
+	 */
+	Iterator<K> keysIterator();
+
+	/**
+	 * @return a spliterator over the keys, which tables override to split by ranges of slots for parallel streams.
+	 */
+	default Spliterator<K> keySpliterator() {
+		return Spliterators.spliterator(keysIterator(), size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+
+	/**
+	 * @param table is the empty hash table which holds the keys, and which should not be used by anything else.
+	 * @return a key table which stores its keys in the given hash table, with a shared dummy value.
+	 */
+	static <K> KeyTable<K> of(HashTable<K, Object> table) {
+		return new HashTableKeys<>(table);
+	}
+
+}
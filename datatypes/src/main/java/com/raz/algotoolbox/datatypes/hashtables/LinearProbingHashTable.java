@@ -2,11 +2,25 @@ package com.raz.algotoolbox.datatypes.hashtables;
 
 import com.raz.algotoolbox.internal.NotNull;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * A hash table which uses a linear probing scheme to resolve collisions.
@@ -16,243 +30,1642 @@ import java.util.function.Consumer;
  * @param <K> is the type of the keys in the hash table.
  * @param <V> is the type to be stored as value in the hash table.
  */
-public class LinearProbingHashTable<K, V> {
+public class LinearProbingHashTable<K, V> implements HashTable<K, V> {
 
-	private static final int INITIAL_CAPACITY = 8;
+	private static final int MIGRATION_STEP = 16;
+	private static final int PARALLEL_THRESHOLD = 1 << 17;
+	private static final int MIN_RANGE_SHIFT = 12; // a range of slots filled by a single task holds at least 4096
+	private static final Object MOVED = new Object();
 	private static final String BAD_HASH = "The table is not full but the hash function did not yield an available position";
 
-	private Entry<K, V>[] entries;
-	private ProbingHashFunction<K> probingHashFunction = (k, i, c) -> Math.abs((k.hashCode() + i) % c);
+	/*
+	 * The table is stored as parallel arrays rather than as an array of entries: a slot is empty iff its key is null,
+	 * and the spread hash code of every key is cached next to it. Probes compare the cached hash codes before calling
+	 * equals, and rehashing into a new capacity never calls hashCode again.
+	 * The capacity is always a power of two, so slots are found by masking rather than by division.
+	 */
+	private K[] keys;
+	private V[] values;
+	private int[] hashes;
+	private int mask;
+	private final ProbingStrategy<K> probingStrategy;
+	private final boolean robinHood;
+	/*
+	 * Removals shift the later entries of a cluster back only under linear probing. Under any other probing a removed
+	 * entry leaves a tombstone behind, which lookups probe past and insertions reuse, and the table is rehashed in
+	 * place once tombstones take up an eighth of the slots. A tombstone is an empty slot flagged in deleted.
+	 */
+	private final boolean tombstoneDeletion;
+	private boolean[] deleted;
+	private int tombstones;
+	private final boolean incrementalResize;
+	private final int initialCapacity;
+	private final float loadFactor;
+	private final int growthFactor;
+	private final float shrinkThreshold;
+	private final StatisticsRecorder statistics;
 	private int currentLoad;
+	/*
+	 * Counts the changes which add, remove or move a slot, so that a slot found before calling a mapping function can
+	 * be told stale afterwards.
+	 */
+	private int modCount;
+
+	/*
+	 * The optional miss filter holds the hash codes of the keys in the table, so that most lookups of absent keys end
+	 * without probing. It is sized for the capacity of the table and rebuilt whenever the table is rehashed. A Bloom
+	 * filter cannot forget the keys removed since, so it is also rebuilt once they add up to a quarter of the slots.
+	 */
+	private final MissFilter missFilter;
+	private KeyFilter filter;
+	private int filterSize;
+	private int staleFilterKeys;
+
+	/*
+	 * While an incremental resize is in progress, the previous arrays are kept next to the current ones and every
+	 * update moves a few of their slots over. The slots below migrationIndex have been moved already. An entry above it
+	 * which is replaced or removed in the meantime is marked as MOVED rather than cleared, so that the probe sequences
+	 * running through it stay intact. Hence a key lives either in the current arrays or in an unmoved previous slot.
+	 */
+	private K[] oldKeys;
+	private V[] oldValues;
+	private int[] oldHashes;
+	private boolean[] oldDeleted;
+	private int oldMask;
+	private int migrationIndex;
 
-	@SuppressWarnings("unchecked")
 	public LinearProbingHashTable() {
-		entries = (Entry<K, V>[]) new Entry[INITIAL_CAPACITY];
+		this(Config.DEFAULT);
+	}
+
+	public LinearProbingHashTable(Config config) {
+		this(config.getProbing().strategy(), config);
 	}
 
 	/**
-	 * @param hashFunction must be a linear probing function!
+	 * @param hashFunction gives the slot to probe for a key at every offset of its probe sequence. Removals leave
+	 *                     tombstones behind, since the function may probe in any order.
 	 */
 	protected LinearProbingHashTable(ProbingHashFunction<K> hashFunction) {
-		this();
-		this.probingHashFunction = hashFunction;
+		this(ProbingStrategy.of(hashFunction), Config.DEFAULT);
+	}
+
+	private LinearProbingHashTable(ProbingStrategy<K> probingStrategy, Config config) {
+		this.probingStrategy = probingStrategy;
+		this.robinHood = config.isRobinHood();
+		this.tombstoneDeletion = probingStrategy != ProbingStrategy.LINEAR;
+		this.incrementalResize = config.isIncrementalResize();
+		this.initialCapacity = Hashing.powerOfTwoCapacity(config.getInitialCapacity());
+		this.loadFactor = config.getLoadFactor();
+		this.growthFactor = config.getGrowthFactor();
+		this.shrinkThreshold = config.getShrinkThreshold();
+		this.statistics = config.isStatisticsEnabled() ? new StatisticsRecorder() : null;
+		this.missFilter = config.getMissFilter();
+		allocate(initialCapacity);
+		rebuildFilter();
 	}
 
+	@Override
 	public int size() {
 		return currentLoad;
 	}
 
+	@Override
 	public boolean isEmpty() {
 		return size() == 0;
 	}
 
+	/**
+	 * @return the number of slots of the table.
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	@Override
 	public boolean containsKey(Object key) {
 		@SuppressWarnings("unchecked")
 		K k = (K) Objects.requireNonNull(key);
-		for (int i = 0; i < entries.length; ++i) {
-			int hash = hash(k, i);
-			if (entries[hash] == null) {
-				break;
-			}
-			if (sameKey(entries[hash].getKey(), k)) {
-				return true;
-			}
-		}
-		return false;
+		int keyHash = spread(k);
+		return indexOf(k, keyHash) >= 0 || oldIndexOf(k, keyHash) >= 0;
 	}
 
+	@Override
 	public boolean containsValue(Object value) {
 		@SuppressWarnings("unchecked")
 		V v = (V) value;
-		for (Entry<K, V> entry : entries) {
-			if (entry != null && Objects.equals(entry.getValue(), v)) {
+		finishMigration();
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null && Objects.equals(values[i], v)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	@Override
 	public V get(Object key) {
 		@SuppressWarnings("unchecked")
 		@NotNull K k = (K) Objects.requireNonNull(key);
-		for (int i = 0; i < entries.length; ++i) {
-			int hash = hash(k, i);
-			if (entries[hash] == null) {
-				break;
-			}
-			if (sameKey(getEntryKey(entries[hash]), k)) {
-				return entries[hash].getValue();
-			}
+		int keyHash = spread(k);
+		int index = indexOf(k, keyHash);
+		if (index >= 0) {
+			return values[index];
 		}
-		return null;
+		int oldIndex = oldIndexOf(k, keyHash);
+		return oldIndex < 0 ? null : oldValues[oldIndex];
 	}
 
+	@Override
 	public V put(K key, V value) {
-		if (entries.length * 0.8 < size()) {
-			realloc(largerCapacity());
+		migrate(MIGRATION_STEP);
+		int keyHash = spread(key);
+		if ((needsToGrow() || needsCompaction()) && indexOf(key, keyHash, null) < 0 && oldIndexOf(key, keyHash) < 0) {
+			// replacing a value never resizes, so that the values of a running iteration may be set
+			if (needsToGrow()) {
+				resize(largerCapacity());
+			} else {
+				compact();
+			}
 		}
-		for (int i = 0; i < entries.length; ++i) {
-			int hash = hash(key, i);
-			if (entries[hash] == null) {
-				entries[hash] = new Entry<>(key, value);
-				currentLoad++;
-				return null;
+		int oldIndex = oldIndexOf(key, keyHash);
+		if (oldIndex >= 0) {
+			// the key is not in the current arrays, so it is moved there along with its new value
+			V oldValue = oldValues[oldIndex];
+			markMoved(oldIndex);
+			currentLoad--;
+			putNew(key, value, keyHash);
+			return oldValue;
+		}
+		return putNew(key, value, keyHash);
+	}
+
+	private V putNew(K key, V value, int keyHash) {
+		if (robinHood) {
+			return robinHoodPut(key, value, keyHash);
+		}
+		int free = -1; // the first tombstone or empty slot on the way, where a new key goes
+		for (int i = 0; i < keys.length; ++i) {
+			int hash = hash(key, keyHash, i);
+			if (keys[hash] == null) {
+				if (free < 0) {
+					free = hash;
+				}
+				if (isTombstone(hash)) {
+					continue;
+				}
+				break;
 			}
-			if (sameKey(entries[hash].getKey(), key)) {
-				V oldValue = entries[hash].getValue();
-				entries[hash] = new Entry<>(key, value);
+			if (sameKey(hash, key, keyHash)) {
+				V oldValue = values[hash];
+				values[hash] = value;
 				return oldValue;
 			}
 		}
-		throw new IllegalStateException(BAD_HASH);
+		if (free < 0) {
+			throw new IllegalStateException(BAD_HASH);
+		}
+		fill(free, key, value, keyHash);
+		currentLoad++;
+		addToFilter(keyHash);
+		return null;
 	}
 
+	@Override
 	public V remove(Object key) {
 		@SuppressWarnings("unchecked")
 		K k = (K) Objects.requireNonNull(key);
-		for (int i = 0; i < entries.length; ++i) {
-			int hash = hash(k, i);
-			if (entries[hash] == null) {
-				break;
+		migrate(MIGRATION_STEP);
+		int keyHash = spread(k);
+		int index = indexOf(k, keyHash);
+		if (index < 0) {
+			int oldIndex = oldIndexOf(k, keyHash);
+			if (oldIndex < 0) {
+				return null;
 			}
-			if (sameKey(getEntryKey(entries[hash]), k)) {
-				V value = entries[hash].getValue();
-				entries[hash] = null;
-				currentLoad--;
-				if (size() < 0.1 * entries.length && entries.length > INITIAL_CAPACITY) {
-					realloc(smallerCapacity()); // rehashing as a side effect
-				} else {
-					fixTable(hash);
+			V value = oldValues[oldIndex];
+			markMoved(oldIndex);
+			currentLoad--;
+			return value;
+		}
+		V value = values[index];
+		removeAt(index);
+		return value;
+	}
+
+	/**
+	 * Removes the entry of a used slot of the current arrays, and shrinks the table if it became too sparse.
+	 */
+	private void removeAt(int index) {
+		modCount++;
+		removeFromFilter(hashes[index]);
+		keys[index] = null;
+		values[index] = null;
+		currentLoad--;
+		boolean shrink = size() < shrinkThreshold * keys.length && keys.length > initialCapacity;
+		if (shrink && !incrementalResize) {
+			realloc(smallerCapacity()); // rehashing as a side effect
+			return;
+		}
+		closeGap(index);
+		if (shrink) {
+			resize(smallerCapacity());
+		} else if (needsCompaction()) {
+			compact();
+		}
+	}
+
+	/**
+	 * Keeps the probe sequences which ran through a slot intact once its entry was removed.
+	 */
+	private void closeGap(int index) {
+		if (tombstoneDeletion) {
+			deleted[index] = true;
+			tombstones++;
+		} else if (robinHood) {
+			shiftBack(index);
+		} else {
+			fixTable(index);
+		}
+	}
+
+	/*
+	 * The following operations probe for their key once, and then update the value in its slot, insert the key at the
+	 * slot where the probe ended, or remove the key from its slot.
+	 */
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		@SuppressWarnings("unchecked")
+		@NotNull K k = (K) Objects.requireNonNull(key);
+		int keyHash = spread(k);
+		int index = indexOf(k, keyHash);
+		if (index >= 0) {
+			return values[index];
+		}
+		int oldIndex = oldIndexOf(k, keyHash);
+		return oldIndex < 0 ? defaultValue : oldValues[oldIndex];
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = slotOf(key, keyHash);
+		if (index < 0) {
+			insertAt(~index, key, value, keyHash);
+			return null;
+		}
+		V oldValue = values[index];
+		if (oldValue == null) {
+			values[index] = value;
+		}
+		return oldValue;
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = slotOf(key, keyHash);
+		if (index >= 0 && values[index] != null) {
+			return values[index];
+		}
+		int expectedModCount = modCount;
+		V value = mappingFunction.apply(key);
+		checkUnmodified(expectedModCount);
+		if (value != null) {
+			if (index >= 0) {
+				values[index] = value;
+			} else {
+				insertAt(~index, key, value, keyHash);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = slotOf(key, keyHash);
+		if (index < 0 || values[index] == null) {
+			return null;
+		}
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, values[index]);
+		checkUnmodified(expectedModCount);
+		if (value == null) {
+			removeAt(index);
+		} else {
+			values[index] = value;
+		}
+		return value;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = slotOf(key, keyHash);
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, index >= 0 ? values[index] : null);
+		checkUnmodified(expectedModCount);
+		if (value == null) {
+			if (index >= 0) {
+				removeAt(index);
+			}
+		} else if (index >= 0) {
+			values[index] = value;
+		} else {
+			insertAt(~index, key, value, keyHash);
+		}
+		return value;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		Objects.requireNonNull(value);
+		int index = slotOf(key, keyHash);
+		if (index < 0) {
+			insertAt(~index, key, value, keyHash);
+			return value;
+		}
+		V newValue = value;
+		if (values[index] != null) {
+			int expectedModCount = modCount;
+			newValue = remappingFunction.apply(values[index], value);
+			checkUnmodified(expectedModCount);
+		}
+		if (newValue == null) {
+			removeAt(index);
+		} else {
+			values[index] = newValue;
+		}
+		return newValue;
+	}
+
+	/**
+	 * Probes once for the key, after moving it out of the previous arrays if an incremental resize left it there.
+	 * @return the slot of the key, or else the complement of the slot where its insertion would start.
+	 */
+	private int slotOf(K key, int keyHash) {
+		migrate(MIGRATION_STEP);
+		int oldIndex = oldIndexOf(key, keyHash);
+		if (oldIndex >= 0) {
+			V value = oldValues[oldIndex];
+			markMoved(oldIndex);
+			currentLoad--;
+			putNew(key, value, keyHash);
+		}
+		int free = -1;
+		for (int i = 0; i < keys.length; ++i) {
+			int index = hash(key, keyHash, i);
+			if (keys[index] == null) {
+				if (free < 0) {
+					free = index;
+				}
+				if (isTombstone(index)) {
+					continue;
 				}
-				return value;
+				return ~free;
+			}
+			if (robinHood && probeDistance(index) < i) {
+				return ~index;
+			}
+			if (sameKey(index, key, keyHash)) {
+				return index;
 			}
 		}
-		return null;
+		if (free < 0) {
+			throw new IllegalStateException(BAD_HASH);
+		}
+		return ~free;
 	}
 
-	public void putAll(Map<? extends K, ? extends V> m) {
-		m.forEach(this::put);
+	/**
+	 * Inserts a key which is not in the table, starting from the slot where a probe for it ended.
+	 */
+	private void insertAt(int index, K key, V value, int keyHash) {
+		if (needsToGrow() || needsCompaction()) {
+			if (needsToGrow()) {
+				resize(largerCapacity());
+			} else {
+				compact();
+			}
+			putNew(key, value, keyHash);
+			return;
+		}
+		if (robinHood) {
+			robinHoodPlace(key, value, keyHash, index, (index - hash(key, keyHash, 0)) & mask);
+		} else {
+			fill(index, key, value, keyHash);
+		}
+		currentLoad++;
+		addToFilter(keyHash);
 	}
 
+	/**
+	 * The slot found before calling a mapping function is stale if the function modified the table.
+	 */
+	private void checkUnmodified(int expectedModCount) {
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Removes the entry of a used slot without shrinking the table, so that the slots are not reallocated under a
+	 * running iteration.
+	 */
+	private void removeSlot(int index) {
+		modCount++;
+		removeFromFilter(hashes[index]);
+		keys[index] = null;
+		values[index] = null;
+		currentLoad--;
+		closeGap(index);
+	}
+
+	/**
+	 * Grows the table at once so that it holds the given number of entries without any further resize.
+	 */
+	public void ensureCapacity(int expectedSize) {
+		int capacity = Hashing.powerOfTwoCapacity((int) Math.min(Math.ceil(expectedSize / (double) loadFactor),
+				Hashing.MAX_CAPACITY));
+		if (capacity > keys.length) {
+			resize(capacity);
+		}
+	}
+
+	/**
+	 * A large map put into an empty table which probes linearly, without Robin Hood insertion, is hashed and placed in
+	 * parallel, using the common fork-join pool. Keys of the map which are equal to each other, as those of an
+	 * {@link java.util.IdentityHashMap} may be, are put once, with the value of the last of them in iteration order.
+	 */
+	@Override
 	@SuppressWarnings("unchecked")
+	public void putAll(Map<? extends K, ? extends V> m) {
+		ensureCapacity(size() + m.size());
+		if (!isEmpty() || m.size() < PARALLEL_THRESHOLD || !placesInParallel()) {
+			m.forEach(this::put);
+			return;
+		}
+		finishMigration();
+		K[] sourceKeys = (K[]) new Object[m.size()];
+		V[] sourceValues = (V[]) new Object[m.size()];
+		int[] count = {0};
+		m.forEach((k, v) -> {
+			sourceKeys[count[0]] = Objects.requireNonNull(k);
+			sourceValues[count[0]++] = v;
+		});
+		int[] sourceHashes = new int[count[0]];
+		IntStream.range(0, count[0]).parallel().forEach(j -> sourceHashes[j] = spread(sourceKeys[j]));
+		currentLoad = parallelPlace(sourceKeys, sourceValues, sourceHashes);
+		rebuildFilter();
+	}
+
+	@Override
 	public void clear() {
-		entries = (Entry<K, V>[]) new Entry[INITIAL_CAPACITY];
+		allocate(initialCapacity);
 		currentLoad = 0;
+		dropOldArrays();
+		rebuildFilter();
 	}
 
+	@Override
 	public void forEach(BiConsumer<? super K, ? super V> action) {
-		for (Entry<K, V> entry :  entries) {
-			if (entry != null) {
-				action.accept(entry.getKey(), entry.getValue());
+		finishMigration();
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null) {
+				action.accept(keys[i], values[i]);
 			}
 		}
 	}
 
+	/**
+	 * The entries passed to the action write through to the table when their value is set.
+	 */
 	public void forEach(Consumer<Entry<K, V>> action) {
-		for (Entry<K, V> entry :  entries) {
-			if (entry != null) {
-				action.accept(entry);
+		finishMigration();
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null) {
+				action.accept(new SlotEntry(i));
 			}
 		}
 	}
 
+	/**
+	 * The iterator supports removal, but the table must not be modified otherwise while it is in use.
+	 */
+	@Override
 	public Iterator<K> keysIterator() {
-		return new Iterator<K>() {
+		return new SlotIterator<>(i -> keys[i]);
+	}
 
-			private int index = -1;
-			{
-				index = findNextIndex();
-			}
+	/**
+	 * Like {@link #keysIterator()}. The entries write through to the table when their value is set.
+	 */
+	@Override
+	public Iterator<Map.Entry<K, V>> entriesIterator() {
+		return new SlotIterator<>(SlotEntry::new);
+	}
+
+	/**
+	 * The spliterator walks the slots directly and splits them by index range. The table must not be modified
+	 * structurally while it is in use.
+	 */
+	@Override
+	public Spliterator<K> keySpliterator() {
+		finishMigration();
+		K[] k = keys;
+		return new SlotSpliterator<>(slotIndices(), i -> k[i]);
+	}
+
+	/**
+	 * Like {@link #keySpliterator()}. The entries write through to the table when their value is set.
+	 */
+	@Override
+	public Spliterator<Map.Entry<K, V>> entrySpliterator() {
+		finishMigration();
+		return new SlotSpliterator<>(slotIndices(), SlotEntry::new);
+	}
+
+	@Override
+	public void parallelForEach(BiConsumer<? super K, ? super V> action) {
+		IntStream slots = parallelSlots();
+		K[] k = keys;
+		V[] v = values;
+		slots.forEach(i -> action.accept(k[i], v[i]));
+	}
+
+	@Override
+	public <U> U parallelReduce(BiFunction<? super K, ? super V, ? extends U> transformer, BinaryOperator<U> reducer) {
+		IntStream slots = parallelSlots();
+		K[] k = keys;
+		V[] v = values;
+		return slots.<U>mapToObj(i -> transformer.apply(k[i], v[i]))
+				.filter(Objects::nonNull)
+				.reduce(reducer)
+				.orElse(null);
+	}
+
+	@Override
+	public <U> U parallelSearch(BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+		IntStream slots = parallelSlots();
+		K[] k = keys;
+		V[] v = values;
+		return slots.<U>mapToObj(i -> searchFunction.apply(k[i], v[i]))
+				.filter(Objects::nonNull)
+				.findAny()
+				.orElse(null);
+	}
+
+	/**
+	 * The parallel operations stream the indices of the used slots, so no entry is allocated for them.
+	 */
+	private IntStream parallelSlots() {
+		finishMigration();
+		return StreamSupport.intStream(slotIndices(), true);
+	}
 
-			@Override
-			public boolean hasNext() {
-				return index < entries.length;
+	private Spliterator.OfInt slotIndices() {
+		return new SlotIndexSpliterator(keys, 0, keys.length, currentLoad, null);
+	}
+
+	/**
+	 * @return an immutable copy of the table, whose lookups read a single slot.
+	 * @see FrozenHashTable
+	 */
+	public FrozenHashTable<K, V> freeze() {
+		return new FrozenHashTable<>(this);
+	}
+
+	/**
+	 * Writes the table to a file, which can later be opened with {@link MappedLinearProbingHashTable#open} and queried
+	 * without being loaded. The slots are written as they are, so the opened table probes exactly like this one.
+	 * @throws UnsupportedOperationException if the table does not probe linearly.
+	 */
+	public void writeTo(Path path, ByteCodec<? super K> keyCodec, ByteCodec<? super V> valueCodec) throws IOException {
+		if (probingStrategy != ProbingStrategy.LINEAR) {
+			throw new UnsupportedOperationException("Only tables which probe linearly can be written");
+		}
+		finishMigration();
+		int scheme = robinHood ? MappedLinearProbingHashTable.ROBIN_HOOD : MappedLinearProbingHashTable.LINEAR;
+		MappedLinearProbingHashTable.write(path, keys, values, hashes, scheme, currentLoad, keyCodec, valueCodec);
+	}
+
+	/**
+	 * @return a snapshot of the statistics gathered so far. Finding the longest cluster scans the whole table.
+	 * @throws IllegalStateException if the table was not configured to gather statistics.
+	 */
+	public HashTableStatistics statistics() {
+		if (statistics == null) {
+			throw new IllegalStateException("The hash table does not gather statistics");
+		}
+		return statistics.snapshot(longestCluster());
+	}
+
+	private int indexOf(K key, int keyHash) {
+		return indexOf(key, keyHash, statistics);
+	}
+
+	/**
+	 * @param recorder records the probe length, unless it is null.
+	 */
+	private int indexOf(K key, int keyHash, StatisticsRecorder recorder) {
+		if (filter != null && !filter.mightContainHash(keyHash)) {
+			return -1;
+		}
+		for (int i = 0; i < keys.length; ++i) {
+			int hash = hash(key, keyHash, i);
+			if (keys[hash] == null && isTombstone(hash)) {
+				continue;
+			}
+			if (keys[hash] == null || (robinHood && probeDistance(hash) < i)) {
+				if (recorder != null) {
+					recorder.recordMiss(i + 1);
+				}
+				return -1;
+			}
+			if (sameKey(hash, key, keyHash)) {
+				if (recorder != null) {
+					recorder.recordHit(i + 1);
+				}
+				return hash;
 			}
+		}
+		if (recorder != null) {
+			recorder.recordMiss(keys.length);
+		}
+		return -1;
+	}
 
-			@Override
-			public K next() {
-				K k = entries[index].getKey();
-				index = findNextIndex();
-				return k;
+	private int longestCluster() {
+		int longest = 0;
+		int first = -1; // the length of the cluster which starts at slot 0, which may continue from the last slot
+		int current = 0;
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null) {
+				current++;
+			} else {
+				if (first < 0) {
+					first = current;
+				}
+				longest = Math.max(longest, current);
+				current = 0;
 			}
+		}
+		return first < 0 ? current : Math.max(longest, current + first);
+	}
 
-			private int findNextIndex() {
-				for (int i = index + 1; i < entries.length; ++i) {
-					if (entries[i] != null) {
-						return i;
-					}
+	/**
+	 * @return the slot of the key in the previous arrays, or -1 if no resize is in progress or the key is not in an
+	 * unmoved slot. The previous arrays are probed without an early exit, which is correct for Robin Hood tables as
+	 * well.
+	 */
+	private int oldIndexOf(K key, int keyHash) {
+		if (oldKeys == null) {
+			return -1;
+		}
+		for (int i = 0; i <= oldMask; ++i) {
+			int index = hash(key, keyHash, i, oldMask);
+			if (oldKeys[index] == null) {
+				if (oldDeleted != null && oldDeleted[index]) {
+					continue;
 				}
-				return entries.length;
+				break;
+			}
+			if (oldHashes[index] == keyHash && oldKeys[index].equals(key)) {
+				return index < migrationIndex ? -1 : index;
+			}
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void markMoved(int oldIndex) {
+		modCount++;
+		oldKeys[oldIndex] = (K) MOVED;
+		oldValues[oldIndex] = null;
+	}
+
+	/**
+	 * Moves the table into arrays of the given capacity, either at once or, in incremental mode, a few slots at a time
+	 * by the following updates. A resize which is still in progress is completed first.
+	 */
+	private void resize(int newCapacity) {
+		if (!incrementalResize) {
+			realloc(newCapacity);
+			return;
+		}
+		finishMigration();
+		if (statistics != null) {
+			statistics.recordResize(newCapacity > keys.length);
+		}
+		oldKeys = keys;
+		oldValues = values;
+		oldHashes = hashes;
+		oldDeleted = deleted;
+		oldMask = mask;
+		migrationIndex = 0;
+		allocate(newCapacity);
+	}
+
+	/**
+	 * Moves up to the given number of previous slots into the current arrays. Moved slots keep their keys, so that
+	 * probes through them still work, but drop their values.
+	 */
+	private void migrate(int slots) {
+		if (oldKeys == null) {
+			return;
+		}
+		long start = statistics == null ? 0 : System.nanoTime();
+		boolean grow = oldKeys.length < keys.length;
+		int end = oldKeys.length - migrationIndex > slots ? migrationIndex + slots : oldKeys.length;
+		for (; migrationIndex < end; ++migrationIndex) {
+			K k = oldKeys[migrationIndex];
+			if (k != null && k != MOVED) {
+				place(k, oldValues[migrationIndex], oldHashes[migrationIndex]);
 			}
-		};
+			oldValues[migrationIndex] = null;
+		}
+		if (statistics != null) {
+			statistics.recordResizeTime(grow, System.nanoTime() - start);
+		}
+		if (migrationIndex == oldKeys.length) {
+			dropOldArrays();
+		}
 	}
 
-	private K getEntryKey(Entry<K, V> entry) {
-		return entry == null ? null : entry.getKey();
+	private void finishMigration() {
+		migrate(Integer.MAX_VALUE);
 	}
 
-	private boolean sameKey(K k1, K k2) {
-		return k1 == null ? k2 == null : k1.equals(k2);
+	private void dropOldArrays() {
+		oldKeys = null;
+		oldValues = null;
+		oldHashes = null;
+		oldDeleted = null;
+	}
+
+	/**
+	 * Robin Hood insertion: walking from the home slot of the key, an entry which is closer to its own home slot than
+	 * the carried entry is to its home gives its slot away and is carried on instead. Hence the probe distances along
+	 * a cluster never drop by more than one from slot to slot, and a lookup may stop as soon as it meets an entry which
+	 * is closer to home than the probe itself.
+	 */
+	private V robinHoodPut(K key, V value, int keyHash) {
+		int index = hash(key, keyHash, 0);
+		for (int distance = 0; distance < keys.length; ++distance) {
+			if (keys[index] == null || probeDistance(index) < distance) {
+				robinHoodPlace(key, value, keyHash, index, distance);
+				currentLoad++;
+				addToFilter(keyHash);
+				return null;
+			}
+			if (sameKey(index, key, keyHash)) {
+				V oldValue = values[index];
+				values[index] = value;
+				return oldValue;
+			}
+			index = (index + 1) & mask;
+		}
+		throw new IllegalStateException(BAD_HASH);
+	}
+
+	/**
+	 * Places the entry at the given slot or further down the cluster, carrying on every entry it displaces.
+	 */
+	private void robinHoodPlace(K key, V value, int keyHash, int index, int distance) {
+		modCount++;
+		while (keys[index] != null) {
+			int slotDistance = probeDistance(index);
+			if (slotDistance < distance) {
+				K k = keys[index];
+				V v = values[index];
+				int h = hashes[index];
+				keys[index] = key;
+				values[index] = value;
+				hashes[index] = keyHash;
+				key = k;
+				value = v;
+				keyHash = h;
+				distance = slotDistance;
+			}
+			index = (index + 1) & mask;
+			distance++;
+		}
+		keys[index] = key;
+		values[index] = value;
+		hashes[index] = keyHash;
+	}
+
+	/**
+	 * The Robin Hood counterpart of {@link #fixTable(int)}: shifts every entry following the emptied slot one slot
+	 * back, until reaching an empty slot or an entry which already sits in its home slot.
+	 */
+	private void shiftBack(int start) {
+		int shifted = 0;
+		int i = (start + 1) & mask;
+		while (keys[i] != null && probeDistance(i) > 0) {
+			keys[start] = keys[i];
+			values[start] = values[i];
+			hashes[start] = hashes[i];
+			keys[i] = null;
+			values[i] = null;
+			start = i;
+			i = (i + 1) & mask;
+			shifted++;
+		}
+		if (statistics != null) {
+			statistics.recordShifts(shifted);
+		}
+	}
+
+	private int probeDistance(int index) {
+		int home = hash(keys[index], hashes[index], 0);
+		return (index - home) & mask;
+	}
+
+	private boolean sameKey(int index, K key, int keyHash) {
+		return hashes[index] == keyHash && keys[index].equals(key);
 	}
 
 	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		modCount++;
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		hashes = new int[capacity];
+		deleted = tombstoneDeletion ? new boolean[capacity] : null;
+		tombstones = 0;
+		mask = capacity - 1;
+	}
+
 	private void realloc(int newCapacity) {
-		Entry<K, V>[] newEntries = (Entry<K, V>[]) new Entry[newCapacity];
-		for (Entry<K, V> entry : entries) {
-			loopBody: if (entry != null) {
-				for (int i = 0; i < newCapacity; ++i) {
-					int hash = hash(entry.getKey(), i, newCapacity);
-					if (newEntries[hash] == null) {
-						newEntries[hash] = entry;
-						break loopBody;
+		long start = statistics == null ? 0 : System.nanoTime();
+		int previousCapacity = keys.length;
+		rehash(newCapacity);
+		if (statistics != null) {
+			boolean grow = newCapacity > previousCapacity;
+			statistics.recordResize(grow);
+			statistics.recordResizeTime(grow, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Rehashes the table in place to clear its tombstones. The previous arrays of an incremental resize are left
+	 * alone, the keys they still hold being absent from the current arrays.
+	 */
+	private void compact() {
+		rehash(keys.length);
+	}
+
+	private boolean needsCompaction() {
+		return tombstones > keys.length >>> 3;
+	}
+
+	private void rehash(int newCapacity) {
+		K[] previousKeys = keys;
+		V[] previousValues = values;
+		int[] previousHashes = hashes;
+		allocate(newCapacity);
+		if (size() >= PARALLEL_THRESHOLD && placesInParallel()) {
+			parallelPlace(previousKeys, previousValues, previousHashes);
+		} else {
+			for (int j = 0; j < previousKeys.length; ++j) {
+				if (previousKeys[j] != null) {
+					place(previousKeys[j], previousValues[j], previousHashes[j]);
+				}
+			}
+		}
+		rebuildFilter();
+	}
+
+	/**
+	 * Entries can be placed range by range only if every entry stays at or after its home slot and never moves once
+	 * placed, which holds for linear probing without Robin Hood insertion, and if there are ranges enough.
+	 */
+	private boolean placesInParallel() {
+		return probingStrategy == ProbingStrategy.LINEAR && !robinHood
+				&& rangeShift() < Integer.numberOfTrailingZeros(keys.length);
+	}
+
+	/**
+	 * @return the base two logarithm of the number of slots per range, so that there are a few ranges per thread.
+	 */
+	private int rangeShift() {
+		int ranges = Integer.highestOneBit(Math.max(1, ForkJoinPool.getCommonPoolParallelism()) * 8);
+		return Math.max(MIN_RANGE_SHIFT, Integer.numberOfTrailingZeros(keys.length) - Integer.numberOfTrailingZeros(ranges));
+	}
+
+	/**
+	 * Places the entries of the given arrays, skipping their null keys, into the current arrays, which must be empty.
+	 * The current slots are split into ranges which are filled in parallel, every range placing the entries whose home
+	 * slot it holds in the order of the given arrays. An entry which would run past the end of its range is deferred,
+	 * so that no two tasks touch the same slot, and placed once all the ranges are filled: the slots from its home slot
+	 * to the end of the range are all used by then, so it can be found wherever it lands.
+	 * An entry whose key is equal to that of an entry already placed replaces its value, as a put would. Both are met
+	 * by the same range in the order of the given arrays, or are both deferred, since the slots of a range only fill.
+	 * The entries are grouped by range with a parallel counting sort, each task counting and then moving the entries of
+	 * its own chunk of the given arrays.
+	 * @return the number of distinct keys placed.
+	 */
+	private int parallelPlace(K[] sourceKeys, V[] sourceValues, int[] sourceHashes) {
+		K[] keys = this.keys;
+		V[] values = this.values;
+		int[] hashes = this.hashes;
+		int mask = this.mask;
+		int rangeShift = rangeShift();
+		int ranges = keys.length >>> rangeShift;
+		int chunkSize = (sourceKeys.length + ranges - 1) / ranges;
+		int[][] chunkOffsets = new int[ranges][ranges];
+		IntStream.range(0, ranges).parallel().forEach(c -> {
+			int[] counts = chunkOffsets[c];
+			for (int j = c * chunkSize, end = Math.min(sourceKeys.length, j + chunkSize); j < end; ++j) {
+				if (sourceKeys[j] != null) {
+					counts[(sourceHashes[j] & mask) >>> rangeShift]++;
+				}
+			}
+		});
+		// the entries of range r start at rangeStarts[r], those of chunk c within it at chunkOffsets[c][r]
+		int[] rangeStarts = new int[ranges + 1];
+		int offset = 0;
+		for (int r = 0; r < ranges; ++r) {
+			rangeStarts[r] = offset;
+			for (int[] counts : chunkOffsets) {
+				int count = counts[r];
+				counts[r] = offset;
+				offset += count;
+			}
+		}
+		rangeStarts[ranges] = offset;
+		int[] order = new int[offset];
+		IntStream.range(0, ranges).parallel().forEach(c -> {
+			int[] next = chunkOffsets[c];
+			for (int j = c * chunkSize, end = Math.min(sourceKeys.length, j + chunkSize); j < end; ++j) {
+				if (sourceKeys[j] != null) {
+					order[next[(sourceHashes[j] & mask) >>> rangeShift]++] = j;
+				}
+			}
+		});
+		int[][] deferred = new int[ranges][];
+		int[] placed = new int[ranges];
+		IntStream.range(0, ranges).parallel().forEach(r -> {
+			int end = (r + 1) << rangeShift;
+			int[] spilled = new int[0];
+			int spilledCount = 0;
+			for (int o = rangeStarts[r]; o < rangeStarts[r + 1]; ++o) {
+				int j = order[o];
+				int i = sourceHashes[j] & mask;
+				while (i < end && keys[i] != null && !sameKey(i, sourceKeys[j], sourceHashes[j])) {
+					i++;
+				}
+				if (i < end) {
+					if (keys[i] == null) {
+						keys[i] = sourceKeys[j];
+						hashes[i] = sourceHashes[j];
+						placed[r]++;
+					}
+					values[i] = sourceValues[j];
+				} else {
+					if (spilledCount == spilled.length) {
+						spilled = Arrays.copyOf(spilled, Math.max(4, spilledCount * 2));
 					}
+					spilled[spilledCount++] = j;
 				}
-				throw new IllegalStateException(BAD_HASH);
+			}
+			deferred[r] = Arrays.copyOf(spilled, spilledCount);
+		});
+		int count = 0;
+		for (int r = 0; r < ranges; ++r) {
+			count += placed[r];
+			for (int j : deferred[r]) {
+				int i = sourceHashes[j] & mask;
+				while (keys[i] != null && !sameKey(i, sourceKeys[j], sourceHashes[j])) {
+					i = (i + 1) & mask;
+				}
+				if (keys[i] == null) {
+					fill(i, sourceKeys[j], sourceValues[j], sourceHashes[j]);
+					count++;
+				} else {
+					values[i] = sourceValues[j];
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Refills the miss filter with the keys of the current arrays, which holds the keys of the whole table since there
+	 * are no previous arrays when filtering.
+	 */
+	private void rebuildFilter() {
+		if (missFilter != MissFilter.NONE) {
+			rebuildFilter((int) Math.min(keys.length * (double) loadFactor + 1, Hashing.MAX_CAPACITY));
+		}
+	}
+
+	/**
+	 * @param expectedKeys is the number of keys the filter is sized for, which is doubled until all the keys fit.
+	 */
+	private void rebuildFilter(int expectedKeys) {
+		filterSize = expectedKeys;
+		filter = missFilter.create(filterSize);
+		while (!fillFilter()) {
+			filterSize = (int) Math.min(filterSize * 2L, Hashing.MAX_CAPACITY);
+			filter = missFilter.create(filterSize);
+		}
+		staleFilterKeys = 0;
+	}
+
+	private boolean fillFilter() {
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null && !filter.addHash(hashes[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the hash code of a key which was just placed in the table.
+	 */
+	private void addToFilter(int keyHash) {
+		if (filter != null && !filter.addHash(keyHash)) {
+			rebuildFilter((int) Math.min(filterSize * 2L, Hashing.MAX_CAPACITY)); // the key included
+		}
+	}
+
+	/**
+	 * Removes the hash code of a key which is about to leave the table.
+	 */
+	private void removeFromFilter(int keyHash) {
+		if (filter != null && !filter.removeHash(keyHash) && ++staleFilterKeys > keys.length >>> 2) {
+			rebuildFilter(); // still holding the removed key, as the only stale one
+		}
+	}
+
+	/**
+	 * Places an entry whose key is known not to be in the current arrays, without counting it.
+	 */
+	private void place(K key, V value, int keyHash) {
+		if (robinHood) {
+			robinHoodPlace(key, value, keyHash, hash(key, keyHash, 0), 0);
+			return;
+		}
+		for (int i = 0; i < keys.length; ++i) {
+			int hash = hash(key, keyHash, i);
+			if (keys[hash] == null) {
+				fill(hash, key, value, keyHash);
+				return;
 			}
 		}
-		entries = newEntries;
+		throw new IllegalStateException(BAD_HASH);
+	}
+
+	/**
+	 * Writes an entry into an empty slot, which may be a tombstone.
+	 */
+	private void fill(int index, K key, V value, int keyHash) {
+		modCount++;
+		keys[index] = key;
+		values[index] = value;
+		hashes[index] = keyHash;
+		if (tombstoneDeletion && deleted[index]) {
+			deleted[index] = false;
+			tombstones--;
+		}
+	}
+
+	private boolean isTombstone(int index) {
+		return tombstoneDeletion && deleted[index];
 	}
 
 	private void fixTable(int start) {
-		int i = (start + 1) % entries.length;
+		int shifted = 0;
+		int i = (start + 1) & mask;
 		do {
-			if (entries[i] == null) {
+			if (keys[i] == null) {
 				break;
 			}
-			int hash = hash(entries[i].getKey(), 0);
+			int hash = hash(keys[i], hashes[i], 0);
 			if ((i < hash && hash <= start) || (i > start && (hash <= start || hash > i))) {
-				entries[start] = entries[i];
-				entries[i] = null;
+				keys[start] = keys[i];
+				values[start] = values[i];
+				hashes[start] = hashes[i];
+				keys[i] = null;
+				values[i] = null;
 				start = i;
+				shifted++;
 			}
-			i = (i + 1) % entries.length;
+			i = (i + 1) & mask;
 		} while (i != start);
+		if (statistics != null) {
+			statistics.recordShifts(shifted);
+		}
+	}
+
+	/**
+	 * At least one slot is always left empty, as every iteration over the slots starts from one.
+	 */
+	private boolean needsToGrow() {
+		return keys.length * loadFactor < size() || size() + 1 >= keys.length;
 	}
 
 	private int largerCapacity() {
-		int oldCapacity = entries.length;
-		if (oldCapacity == Integer.MAX_VALUE) {
+		if (keys.length == Hashing.MAX_CAPACITY) {
 			throw new ArrayStoreException("The load on the hash table is too large");
 		}
-		if (oldCapacity < 1024) {
-			return oldCapacity << 1;
+		return keys.length > Hashing.MAX_CAPACITY / growthFactor ? Hashing.MAX_CAPACITY : keys.length * growthFactor;
+	}
+
+	private int smallerCapacity() {
+		return Math.max(keys.length >>> 1, initialCapacity);
+	}
+
+	/**
+	 * @return the position of the key in the table at the given probe offset.
+	 */
+	private int hash(K key, int keyHash, int offset) {
+		return hash(key, keyHash, offset, mask);
+	}
+
+	private int hash(K key, int keyHash, int offset, int mask) {
+		if (probingStrategy == ProbingStrategy.LINEAR) {
+			return (keyHash + offset) & mask;
 		}
-		if (oldCapacity < Integer.MAX_VALUE - 1024) {
-			return oldCapacity + 1024;
+		return probingStrategy.apply(key, keyHash, offset, mask);
+	}
+
+	/**
+	 * Mixes the hash code of the key, so that keys whose hash codes differ only in their high bits do not collide in
+	 * a table indexed by the low bits.
+	 */
+	private static int spread(Object key) {
+		return Hashing.mix(key.hashCode());
+	}
+
+	private class SlotEntry extends Entry<K, V> {
+
+		private final int index;
+
+		private SlotEntry(int index) {
+			super(keys[index], values[index]);
+			this.index = index;
+		}
+
+		@Override
+		public V setValue(V value) {
+			super.setValue(value);
+			V oldValue = values[index];
+			values[index] = value;
+			return oldValue;
 		}
-		return Integer.MAX_VALUE;
 	}
 
-	private int smallerCapacity() {
-		return Math.max(entries.length >>> 1, INITIAL_CAPACITY);
+	/**
+	 * Walks once around the slots, starting after an empty one. Removing an entry shifts later entries of its cluster
+	 * back, possibly into the slot of the removed entry, but never past an empty slot. Hence the walk only needs to
+	 * visit the slot of a removed entry again to meet every entry exactly once.
+	 */
+	private final class SlotIterator<T> implements Iterator<T> {
+
+		private final IntFunction<T> slotMapper;
+		private final int start;
+		private int offset = 1; // of the next slot to visit from the start
+		private int next;
+		private int last = -1;
+
+		private SlotIterator(IntFunction<T> slotMapper) {
+			finishMigration();
+			this.slotMapper = slotMapper;
+			int empty = 0;
+			while (keys[empty] != null) {
+				empty++;
+			}
+			start = empty;
+			next = findNext();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public T next() {
+			if (next < 0) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = findNext();
+			return slotMapper.apply(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			removeSlot(last);
+			offset = (last - start) & mask;
+			last = -1;
+			next = findNext();
+		}
+
+		private int findNext() {
+			while (offset < keys.length) {
+				int i = (start + offset++) & mask;
+				if (keys[i] != null) {
+					return i;
+				}
+			}
+			return -1;
+		}
 	}
 
-	private int hash(K key, int offset, int capacity) {
-		return probingHashFunction.apply(key, offset, capacity);
+	/**
+	 * Yields the indices of the used slots within a range. A range is split in half at a block boundary, and the used
+	 * slots of every block are counted the first time any range splits, so that both halves know their exact size.
+	 */
+	private static final class SlotIndexSpliterator implements Spliterator.OfInt {
+
+		private static final int BLOCK_SHIFT = 10;
+
+		private final Object[] slots;
+		private int index;
+		private final int fence;
+		private int remaining;
+		private int[] blockCounts; // the number of used slots below every block boundary, shared by all the ranges
+
+		private SlotIndexSpliterator(Object[] slots, int index, int fence, int remaining, int[] blockCounts) {
+			this.slots = slots;
+			this.index = index;
+			this.fence = fence;
+			this.remaining = remaining;
+			this.blockCounts = blockCounts;
+		}
+
+		@Override
+		public Spliterator.OfInt trySplit() {
+			int middle = ((index + fence) >>> (BLOCK_SHIFT + 1)) << BLOCK_SHIFT;
+			if (middle <= index || middle >= fence) {
+				return null;
+			}
+			if (blockCounts == null) {
+				blockCounts = countBlocks(slots);
+			}
+			int upperBlock = (fence + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+			int upperCount = blockCounts[upperBlock] - blockCounts[middle >>> BLOCK_SHIFT];
+			Spliterator.OfInt lower = new SlotIndexSpliterator(slots, index, middle, remaining - upperCount, blockCounts);
+			index = middle;
+			remaining = upperCount;
+			return lower;
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer action) {
+			while (index < fence) {
+				int i = index++;
+				if (slots[i] != null) {
+					remaining--;
+					action.accept(i);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer action) {
+			int i = index;
+			index = fence;
+			remaining = 0;
+			for (; i < fence; ++i) {
+				if (slots[i] != null) {
+					action.accept(i);
+				}
+			}
+		}
+
+		@Override
+		public long estimateSize() {
+			return remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return SIZED | SUBSIZED | DISTINCT | NONNULL;
+		}
+
+		private static int[] countBlocks(Object[] slots) {
+			int blocks = (slots.length + (1 << BLOCK_SHIFT) - 1) >>> BLOCK_SHIFT;
+			int[] counts = new int[blocks + 1];
+			for (int b = 0; b < blocks; ++b) {
+				int count = 0;
+				for (int i = b << BLOCK_SHIFT, end = Math.min(i + (1 << BLOCK_SHIFT), slots.length); i < end; ++i) {
+					if (slots[i] != null) {
+						count++;
+					}
+				}
+				counts[b + 1] = counts[b] + count;
+			}
+			return counts;
+		}
+	}
+
+	/**
+	 * Maps the slot indices yielded by a {@link SlotIndexSpliterator} to elements.
+	 */
+	private static final class SlotSpliterator<T> implements Spliterator<T> {
+
+		private final Spliterator.OfInt slots;
+		private final IntFunction<T> mapper;
+
+		private SlotSpliterator(Spliterator.OfInt slots, IntFunction<T> mapper) {
+			this.slots = slots;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			Spliterator.OfInt lower = slots.trySplit();
+			return lower == null ? null : new SlotSpliterator<>(lower, mapper);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			return slots.tryAdvance((int i) -> action.accept(mapper.apply(i)));
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			slots.forEachRemaining((int i) -> action.accept(mapper.apply(i)));
+		}
+
+		@Override
+		public long estimateSize() {
+			return slots.estimateSize();
+		}
+
+		@Override
+		public int characteristics() {
+			return slots.characteristics();
+		}
+	}
+
+	/**
+	 * The construction options of a {@link LinearProbingHashTable}. Instances are immutable, every {@code with} method
+	 * returns a modified copy.
+	 */
+	public static final class Config {
+
+		public static final Config DEFAULT = new Config();
+
+		private boolean robinHood;
+		private boolean incrementalResize;
+		private int initialCapacity = 8;
+		private float loadFactor = 0.8f;
+		private int growthFactor = 2;
+		private float shrinkThreshold = 0.1f;
+		private boolean statisticsEnabled;
+		private MissFilter missFilter = MissFilter.NONE;
+		private Probing probing = Probing.LINEAR;
+
+		private Config() {}
+
+		private Config copy() {
+			Config config = new Config();
+			config.robinHood = robinHood;
+			config.incrementalResize = incrementalResize;
+			config.initialCapacity = initialCapacity;
+			config.loadFactor = loadFactor;
+			config.growthFactor = growthFactor;
+			config.shrinkThreshold = shrinkThreshold;
+			config.statisticsEnabled = statisticsEnabled;
+			config.missFilter = missFilter;
+			config.probing = probing;
+			return config;
+		}
+
+		/**
+		 * @param robinHood whether entries are inserted by the Robin Hood scheme, which keeps the variance of probe
+		 *                  lengths low and lets unsuccessful lookups stop early, at the cost of moving entries around
+		 *                  on insertion.
+		 */
+		public Config withRobinHood(boolean robinHood) {
+			checkRobinHoodProbing(robinHood, probing);
+			Config config = copy();
+			config.robinHood = robinHood;
+			return config;
+		}
+
+		/**
+		 * @param incrementalResize whether a resize keeps the previous arrays next to the new ones and lets every
+		 *                          following update move a bounded number of slots, instead of moving all the entries
+		 *                          in the update which triggered it. Lookups consult both arrays meanwhile.
+		 */
+		public Config withIncrementalResize(boolean incrementalResize) {
+			checkFilteredResize(missFilter, incrementalResize);
+			Config config = copy();
+			config.incrementalResize = incrementalResize;
+			return config;
+		}
+
+		/**
+		 * @param initialCapacity is the number of slots to start with, rounded up to a power of two. The table never
+		 *                        shrinks below it.
+		 */
+		public Config withInitialCapacity(int initialCapacity) {
+			if (initialCapacity < 1 || initialCapacity > Hashing.MAX_CAPACITY) {
+				throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+			}
+			Config config = copy();
+			config.initialCapacity = initialCapacity;
+			return config;
+		}
+
+		/**
+		 * @param loadFactor is the ratio of entries to slots above which the table grows.
+		 */
+		public Config withLoadFactor(float loadFactor) {
+			if (!(loadFactor > 0 && loadFactor < 1)) {
+				throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+			}
+			return copy().checkedShrinkPolicy(loadFactor, growthFactor, shrinkThreshold);
+		}
+
+		/**
+		 * @param growthFactor is the factor by which the capacity is multiplied when the table grows, a power of two
+		 *                     so that the capacity remains one.
+		 */
+		public Config withGrowthFactor(int growthFactor) {
+			if (growthFactor < 2 || Integer.bitCount(growthFactor) != 1) {
+				throw new IllegalArgumentException("The growth factor must be a power of two, got " + growthFactor);
+			}
+			return copy().checkedShrinkPolicy(loadFactor, growthFactor, shrinkThreshold);
+		}
+
+		/**
+		 * @param shrinkThreshold is the ratio of entries to slots below which the table halves its capacity. It must be
+		 *                        below the load of a table which has just grown, so that updates around a resize
+		 *                        boundary cannot grow and shrink the table over and over.
+		 */
+		public Config withShrinkThreshold(float shrinkThreshold) {
+			return copy().checkedShrinkPolicy(loadFactor, growthFactor, shrinkThreshold);
+		}
+
+		/**
+		 * @param statisticsEnabled whether the table gathers the statistics returned by
+		 *                          {@link LinearProbingHashTable#statistics()}. A table without them pays nothing more
+		 *                          than a null check where it would record.
+		 */
+		public Config withStatisticsEnabled(boolean statisticsEnabled) {
+			Config config = copy();
+			config.statisticsEnabled = statisticsEnabled;
+			return config;
+		}
+
+		/**
+		 * @param missFilter is the filter which rejects most lookups of absent keys before they probe any slot, for
+		 *                   workloads dominated by misses. Rejected lookups are not recorded in the statistics. A
+		 *                   filter is rebuilt along with the table, so it cannot be combined with incremental resizing.
+		 */
+		public Config withMissFilter(MissFilter missFilter) {
+			checkFilteredResize(Objects.requireNonNull(missFilter), incrementalResize);
+			Config config = copy();
+			config.missFilter = missFilter;
+			return config;
+		}
+
+		/**
+		 * @param probing is the order in which the slots are probed for a key. Removals shift entries back under linear
+		 *                probing only, and leave tombstones behind under any other, so Robin Hood insertion requires
+		 *                linear probing.
+		 */
+		public Config withProbing(Probing probing) {
+			checkRobinHoodProbing(robinHood, Objects.requireNonNull(probing));
+			Config config = copy();
+			config.probing = probing;
+			return config;
+		}
+
+		private static void checkRobinHoodProbing(boolean robinHood, Probing probing) {
+			if (robinHood && probing != Probing.LINEAR) {
+				throw new IllegalArgumentException("Robin Hood insertion requires linear probing, got " + probing);
+			}
+		}
+
+		private static void checkFilteredResize(MissFilter missFilter, boolean incrementalResize) {
+			if (missFilter != MissFilter.NONE && incrementalResize) {
+				throw new IllegalArgumentException("A miss filter cannot be combined with incremental resizing");
+			}
+		}
+
+		private Config checkedShrinkPolicy(float loadFactor, int growthFactor, float shrinkThreshold) {
+			if (!(shrinkThreshold >= 0 && shrinkThreshold < loadFactor / growthFactor)) {
+				throw new IllegalArgumentException("The shrink threshold " + shrinkThreshold
+						+ " must be non negative and below the load factor over the growth factor");
+			}
+			this.loadFactor = loadFactor;
+			this.growthFactor = growthFactor;
+			this.shrinkThreshold = shrinkThreshold;
+			return this;
+		}
+
+		public boolean isRobinHood() {
+			return robinHood;
+		}
+
+		public boolean isIncrementalResize() {
+			return incrementalResize;
+		}
+
+		public int getInitialCapacity() {
+			return initialCapacity;
+		}
+
+		public float getLoadFactor() {
+			return loadFactor;
+		}
+
+		public int getGrowthFactor() {
+			return growthFactor;
+		}
+
+		public float getShrinkThreshold() {
+			return shrinkThreshold;
+		}
+
+		public boolean isStatisticsEnabled() {
+			return statisticsEnabled;
+		}
+
+		public MissFilter getMissFilter() {
+			return missFilter;
+		}
+
+		public Probing getProbing() {
+			return probing;
+		}
 	}
 
-	private int hash(K key, int offset) {
-		return probingHashFunction.apply(key, offset, entries.length);
+	/**
+	 * The built in orders in which a {@link LinearProbingHashTable} probes the slots for a key.
+	 */
+	public enum Probing {
+		/**
+		 * Probes the slots following the home slot of the key, which is the most cache friendly order, but lets
+		 * clusters of neighboring home slots grow long, as with sequential keys.
+		 */
+		LINEAR(ProbingStrategy.LINEAR),
+		/**
+		 * Probes by steps of growing length, so that neighboring home slots do not merge into one cluster.
+		 */
+		QUADRATIC(ProbingStrategy.QUADRATIC),
+		/**
+		 * Probes by a step which depends on the key, so that keys sharing a home slot mostly part ways after it.
+		 */
+		DOUBLE_HASHING(ProbingStrategy.DOUBLE_HASHING);
+
+		private final ProbingStrategy<Object> strategy;
+
+		Probing(ProbingStrategy<Object> strategy) {
+			this.strategy = strategy;
+		}
+
+		@SuppressWarnings("unchecked")
+		private <K> ProbingStrategy<K> strategy() {
+			return (ProbingStrategy<K>) (ProbingStrategy<?>) strategy;
+		}
+	}
+
+	/**
+	 * The filters which a {@link LinearProbingHashTable} may consult before probing for a key.
+	 */
+	public enum MissFilter {
+		NONE,
+		/**
+		 * A {@link BlockedBloomFilter} with a false positive rate of 1%. It cannot forget removed keys, so it suits
+		 * tables which see few removals.
+		 */
+		BLOOM,
+		/**
+		 * A {@link CuckooFilter}, which has a false positive rate of about 0.01% and forgets removed keys.
+		 */
+		CUCKOO;
+
+		private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+
+		private KeyFilter create(int expectedKeys) {
+			switch (this) {
+				case BLOOM:
+					return new BlockedBloomFilter(expectedKeys, BLOOM_FALSE_POSITIVE_RATE);
+				case CUCKOO:
+					return new CuckooFilter(expectedKeys);
+				default:
+					throw new IllegalStateException("No filter to create");
+			}
+		}
 	}
 
 	protected static class Entry<K, V> implements Map.Entry<K, V> {
@@ -0,0 +1,300 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A linear probing hash table which stores keys only, for sets.
+ * The keys are the only array of the table, and an empty slot is a null key. Unlike {@link LinearProbingHashTable}
+ * the hash codes are not cached, so a resize or a removal calls hashCode again on the keys it moves, which suits keys
+ * with cheap hash codes such as boxed identifiers. An empty table holds no array at all, and clearing a table releases
+ * its array, so that many small sets stay small.
+ * @param <K> is the type of the keys in the table.
+ */
+public class LinearProbingKeyTable<K> implements KeyTable<K> {
+
+	private static final int MIN_CAPACITY = 4;
+	private static final Object[] NO_KEYS = {};
+
+	private K[] keys;
+	private int mask;
+	private int size;
+
+	public LinearProbingKeyTable() {
+		clear();
+	}
+
+	/**
+	 * Creates a table which holds the given number of keys without resizing.
+	 */
+	public LinearProbingKeyTable(int expectedSize) {
+		clear();
+		if (expectedSize > 0) {
+			allocate(Hashing.powerOfTwoCapacity((int) Math.min(expectedSize * 4L / 3 + 1, Hashing.MAX_CAPACITY)));
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of slots of the table.
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		return indexOf(Objects.requireNonNull(key)) >= 0;
+	}
+
+	@Override
+	public boolean add(K key) {
+		int home = spread(Objects.requireNonNull(key));
+		if (keys.length == 0) {
+			allocate(MIN_CAPACITY);
+		}
+		for (int i = home & mask; ; i = (i + 1) & mask) {
+			if (keys[i] == null) {
+				if ((size + 1) * 4L > keys.length * 3L) { // above a load of 3/4
+					realloc(keys.length << 1);
+					place(key, home);
+				} else {
+					keys[i] = key;
+				}
+				size++;
+				return true;
+			}
+			if (keys[i].equals(key)) {
+				return false;
+			}
+		}
+	}
+
+	@Override
+	public boolean remove(Object key) {
+		int index = indexOf(Objects.requireNonNull(key));
+		if (index < 0) {
+			return false;
+		}
+		removeAt(index);
+		if (size * 8L < keys.length && keys.length > MIN_CAPACITY) {
+			realloc(keys.length >>> 1);
+		}
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void clear() {
+		keys = (K[]) NO_KEYS;
+		mask = -1;
+		size = 0;
+	}
+
+	@Override
+	public void forEach(Consumer<? super K> action) {
+		for (K key : keys) {
+			if (key != null) {
+				action.accept(key);
+			}
+		}
+	}
+
+	/**
+	 * Walks once around the slots starting after an empty one, like the iterators of {@link LinearProbingHashTable},
+	 * so that removing keys through the iterator neither skips nor repeats any key.
+	 */
+	@Override
+	public Iterator<K> keysIterator() {
+		return new Iterator<K>() {
+
+			private final int start = firstEmptySlot();
+			private int offset = 1;
+			private int next = findNext();
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public K next() {
+				if (next < 0) {
+					throw new NoSuchElementException();
+				}
+				last = next;
+				next = findNext();
+				return keys[last];
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				removeAt(last); // without shrinking, which would reallocate the slots under the iteration
+				offset = (last - start) & mask;
+				last = -1;
+				next = findNext();
+			}
+
+			private int findNext() {
+				while (offset < keys.length) {
+					int i = (start + offset++) & mask;
+					if (keys[i] != null) {
+						return i;
+					}
+				}
+				return -1;
+			}
+		};
+	}
+
+	/**
+	 * Splits the slots into halves, so that a parallel stream walks ranges of the key array instead of batches copied
+	 * from an iterator. The table must not be modified while it is in use.
+	 */
+	@Override
+	public Spliterator<K> keySpliterator() {
+		return new SlotSpliterator<>(keys, 0, keys.length, size);
+	}
+
+	private int firstEmptySlot() {
+		int empty = 0;
+		while (empty < keys.length && keys[empty] != null) {
+			empty++;
+		}
+		return empty;
+	}
+
+	private int indexOf(Object key) {
+		if (size == 0) {
+			return -1;
+		}
+		for (int i = spread(key) & mask; keys[i] != null; i = (i + 1) & mask) {
+			if (keys[i].equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Empties a used slot, and moves back the later keys of its cluster which may live closer to their home slot.
+	 */
+	private void removeAt(int index) {
+		keys[index] = null;
+		size--;
+		int gap = index;
+		for (int i = (index + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+			int home = spread(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = keys[i];
+				keys[i] = null;
+				gap = i;
+			}
+		}
+	}
+
+	private void place(K key, int home) {
+		int i = home & mask;
+		while (keys[i] != null) {
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		keys = (K[]) new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	private void realloc(int newCapacity) {
+		if (newCapacity > Hashing.MAX_CAPACITY) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		K[] oldKeys = keys;
+		allocate(newCapacity);
+		for (K key : oldKeys) {
+			if (key != null) {
+				place(key, spread(key));
+			}
+		}
+	}
+
+	private static int spread(Object key) {
+		return Hashing.mix(key.hashCode());
+	}
+
+	private static final class SlotSpliterator<K> implements Spliterator<K> {
+
+		private static final int MIN_SPLIT = 1 << 10;
+
+		private final K[] slots;
+		private int index;
+		private final int fence;
+		private long estimate; // the keys are assumed to be spread evenly over the slots
+
+		private SlotSpliterator(K[] slots, int index, int fence, long estimate) {
+			this.slots = slots;
+			this.index = index;
+			this.fence = fence;
+			this.estimate = estimate;
+		}
+
+		@Override
+		public Spliterator<K> trySplit() {
+			int middle = (index + fence) >>> 1;
+			if (middle - index < MIN_SPLIT) {
+				return null;
+			}
+			estimate >>>= 1;
+			Spliterator<K> lower = new SlotSpliterator<>(slots, index, middle, estimate);
+			index = middle;
+			return lower;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super K> action) {
+			while (index < fence) {
+				K key = slots[index++];
+				if (key != null) {
+					action.accept(key);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super K> action) {
+			int i = index;
+			index = fence;
+			for (; i < fence; ++i) {
+				if (slots[i] != null) {
+					action.accept(slots[i]);
+				}
+			}
+		}
+
+		@Override
+		public long estimateSize() {
+			return estimate;
+		}
+
+		@Override
+		public int characteristics() {
+			return DISTINCT | NONNULL;
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import com.raz.algotoolbox.internal.LongObjConsumer;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+
+/**
+ * A linear probing hash table specialized for {@code long} keys.
+ * Keys and values are kept in parallel arrays and an empty slot is marked by the key {@code 0}, so neither a lookup
+ * nor an update of an existing key allocates. The key {@code 0} itself is stored outside of the arrays.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public class LongLinearProbingHashTable<V> {
+
+	private static final int INITIAL_CAPACITY = 8;
+	private static final long EMPTY = 0;
+
+	private long[] keys;
+	private V[] values;
+	private int mask;
+	private int currentLoad;
+	private boolean hasEmptyKey;
+	private V emptyKeyValue;
+
+	public LongLinearProbingHashTable() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	public int size() {
+		return hasEmptyKey ? currentLoad + 1 : currentLoad;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean containsKey(long key) {
+		return key == EMPTY ? hasEmptyKey : indexOf(key) >= 0;
+	}
+
+	public boolean containsValue(Object value) {
+		if (hasEmptyKey && Objects.equals(emptyKeyValue, value)) {
+			return true;
+		}
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != EMPTY && Objects.equals(values[i], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public V get(long key) {
+		if (key == EMPTY) {
+			return emptyKeyValue;
+		}
+		int index = indexOf(key);
+		return index < 0 ? null : values[index];
+	}
+
+	public V put(long key, V value) {
+		if (key == EMPTY) {
+			V oldValue = emptyKeyValue;
+			emptyKeyValue = value;
+			hasEmptyKey = true;
+			return oldValue;
+		}
+		if (keys.length * 0.8 < currentLoad) {
+			realloc(largerCapacity());
+		}
+		int i = Hashing.mix(key) & mask;
+		for (long k = keys[i]; k != EMPTY; k = keys[i]) {
+			if (k == key) {
+				V oldValue = values[i];
+				values[i] = value;
+				return oldValue;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		currentLoad++;
+		return null;
+	}
+
+	public V remove(long key) {
+		if (key == EMPTY) {
+			V value = emptyKeyValue;
+			emptyKeyValue = null;
+			hasEmptyKey = false;
+			return value;
+		}
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		V value = values[index];
+		keys[index] = EMPTY;
+		values[index] = null;
+		currentLoad--;
+		if (currentLoad < 0.1 * keys.length && keys.length > INITIAL_CAPACITY) {
+			realloc(smallerCapacity()); // rehashing as a side effect
+		} else {
+			fixTable(index);
+		}
+		return value;
+	}
+
+	public void putAll(Map<? extends Long, ? extends V> m) {
+		m.forEach((k, v) -> put(k, v));
+	}
+
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+		currentLoad = 0;
+		hasEmptyKey = false;
+		emptyKeyValue = null;
+	}
+
+	public void forEachEntry(LongObjConsumer<? super V> action) {
+		if (hasEmptyKey) {
+			action.accept(EMPTY, emptyKeyValue);
+		}
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != EMPTY) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	public PrimitiveIterator.OfLong keysIterator() {
+		return new PrimitiveIterator.OfLong() {
+
+			private boolean emptyKeyPending = hasEmptyKey;
+			private int index = findNextIndex(-1);
+
+			@Override
+			public boolean hasNext() {
+				return emptyKeyPending || index < keys.length;
+			}
+
+			@Override
+			public long nextLong() {
+				if (emptyKeyPending) {
+					emptyKeyPending = false;
+					return EMPTY;
+				}
+				if (index >= keys.length) {
+					throw new NoSuchElementException();
+				}
+				long k = keys[index];
+				index = findNextIndex(index);
+				return k;
+			}
+
+			private int findNextIndex(int from) {
+				for (int i = from + 1; i < keys.length; ++i) {
+					if (keys[i] != EMPTY) {
+						return i;
+					}
+				}
+				return keys.length;
+			}
+		};
+	}
+
+	private int indexOf(long key) {
+		int i = Hashing.mix(key) & mask;
+		for (long k = keys[i]; k != EMPTY; k = keys[i]) {
+			if (k == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = (V[]) new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	private void realloc(int newCapacity) {
+		long[] oldKeys = keys;
+		V[] oldValues = values;
+		allocate(newCapacity);
+		for (int j = 0; j < oldKeys.length; ++j) {
+			if (oldKeys[j] != EMPTY) {
+				int i = Hashing.mix(oldKeys[j]) & mask;
+				while (keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	/**
+	 * Shifts back the entries following the slot which has just been emptied, so that no probe sequence is broken.
+	 */
+	private void fixTable(int start) {
+		int i = (start + 1) & mask;
+		while (keys[i] != EMPTY) {
+			int hash = Hashing.mix(keys[i]) & mask;
+			if (start <= i ? (hash <= start || hash > i) : (hash <= start && hash > i)) {
+				keys[start] = keys[i];
+				values[start] = values[i];
+				keys[i] = EMPTY;
+				values[i] = null;
+				start = i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private int largerCapacity() {
+		if (keys.length == Hashing.MAX_CAPACITY) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		return keys.length << 1;
+	}
+
+	private int smallerCapacity() {
+		return Math.max(keys.length >>> 1, INITIAL_CAPACITY);
+	}
+
+}
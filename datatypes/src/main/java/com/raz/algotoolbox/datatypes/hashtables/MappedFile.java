@@ -0,0 +1,89 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only mapping of a whole file. A single mapped buffer cannot exceed 2 GB, so the file is mapped as a sequence
+ * of buffers of equal size, and reads which straddle two buffers are assembled byte by byte.
+ * Numbers are read in big-endian order, as written by {@link java.io.DataOutputStream}.
+ */
+final class MappedFile implements Closeable {
+
+	static final int SEGMENT_SHIFT = 30;
+
+	private final MappedByteBuffer[] segments;
+	private final int segmentShift;
+	private final long segmentMask;
+	private final long length;
+
+	MappedFile(FileChannel channel, int segmentShift) throws IOException {
+		this.segmentShift = segmentShift;
+		this.segmentMask = (1L << segmentShift) - 1;
+		this.length = channel.size();
+		long segmentBytes = 1L << segmentShift;
+		segments = new MappedByteBuffer[(int) ((length + segmentBytes - 1) >>> segmentShift)];
+		for (int i = 0; i < segments.length; ++i) {
+			long position = (long) i << segmentShift;
+			segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentBytes, length - position));
+		}
+	}
+
+	long length() {
+		return length;
+	}
+
+	byte get(long position) {
+		return segments[(int) (position >>> segmentShift)].get((int) (position & segmentMask));
+	}
+
+	int getInt(long position) {
+		MappedByteBuffer segment = segments[(int) (position >>> segmentShift)];
+		int offset = (int) (position & segmentMask);
+		if (offset + Integer.BYTES <= segment.limit()) {
+			return segment.getInt(offset);
+		}
+		int result = 0;
+		for (int b = 0; b < Integer.BYTES; ++b) {
+			result = (result << 8) | (get(position + b) & 0xff);
+		}
+		return result;
+	}
+
+	long getLong(long position) {
+		MappedByteBuffer segment = segments[(int) (position >>> segmentShift)];
+		int offset = (int) (position & segmentMask);
+		if (offset + Long.BYTES <= segment.limit()) {
+			return segment.getLong(offset);
+		}
+		return ((long) getInt(position) << 32) | (getInt(position + Integer.BYTES) & 0xffffffffL);
+	}
+
+	void get(long position, byte[] dst) {
+		for (int b = 0; b < dst.length; ++b) {
+			dst[b] = get(position + b);
+		}
+	}
+
+	/**
+	 * @return true iff the file holds exactly the given bytes from the given position on.
+	 */
+	boolean matches(long position, byte[] bytes) {
+		for (int b = 0; b < bytes.length; ++b) {
+			if (get(position + b) != bytes[b]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void close() {
+		for (MappedByteBuffer segment : segments) {
+			DirectMemory.free(segment);
+		}
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A read-only view of a {@link LinearProbingHashTable} which was written to a file by
+ * {@link LinearProbingHashTable#writeTo}. The file is mapped into memory and lookups probe the mapped pages directly,
+ * along the same probe sequences as the written table, so opening a table costs no deserialization at all: only the
+ * pages which are actually probed are ever read from the disk.
+ * <p>
+ * The file starts with a header, followed by the records of the entries and then by the slots of the table:
+ * <pre>
+ * header: int magic, int version, int probing scheme, int capacity, int size, long offset of the slots
+ * record: int key length, key bytes, int value length (-1 for a null value), value bytes
+ * slot:   int spread hash code of the key, long offset of its record (0 for an empty slot)
+ * </pre>
+ * Since probes start from the hash codes of the keys, the keys must have hash codes which do not change from one run
+ * of the program to the next (like those of strings and boxed numbers, unlike the identity hash code).
+ * The mapping is held until {@link #close()} is called; a closed table may not be used anymore.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type of the values in the hash table.
+ */
+public class MappedLinearProbingHashTable<K, V> implements Closeable {
+
+	static final int MAGIC = 0x4C504854; // "LPHT"
+	static final int VERSION = 1;
+	static final int LINEAR = 0;
+	static final int ROBIN_HOOD = 1;
+	private static final int HEADER_BYTES = 5 * Integer.BYTES + Long.BYTES;
+	private static final int SLOT_BYTES = Integer.BYTES + Long.BYTES;
+	private static final long EMPTY = 0;
+
+	private final MappedFile file;
+	private final ByteCodec<K> keyCodec;
+	private final ByteCodec<V> valueCodec;
+	private final boolean robinHood;
+	private final int mask;
+	private final int size;
+	private final long slotsOffset;
+	private boolean closed;
+
+	private MappedLinearProbingHashTable(MappedFile file, ByteCodec<K> keyCodec, ByteCodec<V> valueCodec)
+			throws IOException {
+		this.file = file;
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+		if (file.length() < HEADER_BYTES || file.getInt(0) != MAGIC) {
+			throw new IOException("Not a hash table file");
+		}
+		if (file.getInt(4) != VERSION) {
+			throw new IOException("Unsupported hash table file version: " + file.getInt(4));
+		}
+		int scheme = file.getInt(8);
+		if (scheme != LINEAR && scheme != ROBIN_HOOD) {
+			throw new IOException("Unknown probing scheme: " + scheme);
+		}
+		this.robinHood = scheme == ROBIN_HOOD;
+		this.mask = file.getInt(12) - 1;
+		this.size = file.getInt(16);
+		this.slotsOffset = file.getLong(20);
+		if (slotsOffset + (mask + 1L) * SLOT_BYTES != file.length()) {
+			throw new IOException("The hash table file is truncated");
+		}
+	}
+
+	public static <K, V> MappedLinearProbingHashTable<K, V> open(Path path, ByteCodec<K> keyCodec,
+			ByteCodec<V> valueCodec) throws IOException {
+		return open(path, keyCodec, valueCodec, MappedFile.SEGMENT_SHIFT);
+	}
+
+	static <K, V> MappedLinearProbingHashTable<K, V> open(Path path, ByteCodec<K> keyCodec, ByteCodec<V> valueCodec,
+			int segmentShift) throws IOException {
+		MappedFile file;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			file = new MappedFile(channel, segmentShift); // the mapping outlives the channel
+		}
+		try {
+			return new MappedLinearProbingHashTable<>(file, keyCodec, valueCodec);
+		} catch (IOException | RuntimeException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	public boolean containsKey(Object key) {
+		return recordOf(key) != EMPTY;
+	}
+
+	public V get(Object key) {
+		long record = recordOf(key);
+		if (record == EMPTY) {
+			return null;
+		}
+		return readValue(record + Integer.BYTES + file.getInt(record));
+	}
+
+	/**
+	 * Decodes every entry of the table and passes it to the action.
+	 */
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		checkOpen();
+		for (int i = 0; i <= mask; ++i) {
+			long record = file.getLong(slot(i) + Integer.BYTES);
+			if (record != EMPTY) {
+				byte[] key = new byte[file.getInt(record)];
+				file.get(record + Integer.BYTES, key);
+				action.accept(keyCodec.decode(key), readValue(record + Integer.BYTES + key.length));
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			file.close();
+		}
+	}
+
+	/**
+	 * @return the offset of the record of the key, or {@link #EMPTY} if the key is not in the table.
+	 */
+	private long recordOf(Object key) {
+		checkOpen();
+		@SuppressWarnings("unchecked")
+		K k = (K) Objects.requireNonNull(key);
+		int keyHash = Hashing.mix(k.hashCode());
+		byte[] encoded = null;
+		for (int i = 0; i <= mask; ++i) {
+			int index = (keyHash + i) & mask;
+			long slot = slot(index);
+			long record = file.getLong(slot + Integer.BYTES);
+			if (record == EMPTY) {
+				break;
+			}
+			int hash = file.getInt(slot);
+			if (robinHood && ((index - hash) & mask) < i) {
+				break;
+			}
+			if (hash == keyHash) {
+				if (encoded == null) {
+					encoded = keyCodec.encode(k);
+				}
+				if (file.getInt(record) == encoded.length && file.matches(record + Integer.BYTES, encoded)) {
+					return record;
+				}
+			}
+		}
+		return EMPTY;
+	}
+
+	private V readValue(long position) {
+		int length = file.getInt(position);
+		if (length < 0) {
+			return null;
+		}
+		byte[] value = new byte[length];
+		file.get(position + Integer.BYTES, value);
+		return valueCodec.decode(value);
+	}
+
+	private long slot(int index) {
+		return slotsOffset + (long) index * SLOT_BYTES;
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("The hash table is closed");
+		}
+	}
+
+	/**
+	 * Writes the slots of a table in the format read by this class. The records are streamed in slot order, and the
+	 * header is completed once the offset of the slots is known.
+	 */
+	static <K, V> void write(Path path, K[] keys, V[] values, int[] hashes, int scheme, int size,
+			ByteCodec<? super K> keyCodec, ByteCodec<? super V> valueCodec) throws IOException {
+		long[] records = new long[keys.length];
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(scheme);
+			out.writeInt(keys.length);
+			out.writeInt(size);
+			out.writeLong(EMPTY); // the offset of the slots, filled in below
+			long position = HEADER_BYTES;
+			for (int i = 0; i < keys.length; ++i) {
+				if (keys[i] != null) {
+					records[i] = position;
+					byte[] key = keyCodec.encode(keys[i]);
+					byte[] value = values[i] == null ? null : valueCodec.encode(values[i]);
+					out.writeInt(key.length);
+					out.write(key);
+					out.writeInt(value == null ? -1 : value.length);
+					if (value != null) {
+						out.write(value);
+					}
+					position += 2 * Integer.BYTES + key.length + (value == null ? 0 : value.length);
+				}
+			}
+			for (int i = 0; i < keys.length; ++i) {
+				out.writeInt(keys[i] == null ? 0 : hashes[i]);
+				out.writeLong(records[i]);
+			}
+			out.flush();
+			ByteBuffer slotsOffset = ByteBuffer.allocate(Long.BYTES).putLong(0, position);
+			channel.write(slotsOffset, HEADER_BYTES - Long.BYTES);
+		}
+	}
+
+}
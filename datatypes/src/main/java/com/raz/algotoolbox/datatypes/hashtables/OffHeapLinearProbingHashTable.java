@@ -0,0 +1,351 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.BiConsumer;
+
+/**
+ * A hash table which uses a linear probing scheme to resolve collisions, and which keeps its fixed width binary keys
+ * and values in direct buffers, out of the reach of the garbage collector.
+ * Each slot holds a 4 bytes tag, taken from the hash of the key and never 0 for a used slot, followed by the key and
+ * the value. Since a single buffer cannot exceed 2 GB, larger tables are split over several buffers of equal size.
+ * Removals shift back the rest of the cluster, just like {@link LinearProbingHashTable} does.
+ * The memory is held until {@link #close()} is called; a closed table may not be used anymore.
+ */
+public class OffHeapLinearProbingHashTable implements Closeable {
+
+	private static final long INITIAL_CAPACITY = 16;
+	private static final int MAX_SEGMENT_BYTES = 1 << 30;
+	private static final int TAG_WIDTH = 4;
+	private static final int EMPTY = 0;
+	private static final int OCCUPIED = 0x80000000;
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final int keyWidth;
+	private final int valueWidth;
+	private final int slotWidth;
+	private final int maxSegmentBytes;
+	private ByteBuffer[] segments;
+	private long mask;
+	private int segmentShift;
+	private long segmentMask;
+	private long currentLoad;
+	private boolean closed;
+
+	public OffHeapLinearProbingHashTable(int keyWidth, int valueWidth) {
+		this(keyWidth, valueWidth, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * @param initialCapacity is the number of slots to start with, which is rounded up to a power of two.
+	 */
+	public OffHeapLinearProbingHashTable(int keyWidth, int valueWidth, long initialCapacity) {
+		this(keyWidth, valueWidth, initialCapacity, MAX_SEGMENT_BYTES);
+	}
+
+	OffHeapLinearProbingHashTable(int keyWidth, int valueWidth, long initialCapacity, int maxSegmentBytes) {
+		if (keyWidth <= 0 || valueWidth < 0) {
+			throw new IllegalArgumentException("Illegal key or value width: " + keyWidth + ", " + valueWidth);
+		}
+		this.keyWidth = keyWidth;
+		this.valueWidth = valueWidth;
+		this.slotWidth = TAG_WIDTH + keyWidth + valueWidth;
+		if (slotWidth > maxSegmentBytes) {
+			throw new IllegalArgumentException("A slot of " + slotWidth + " bytes does not fit in a buffer");
+		}
+		this.maxSegmentBytes = maxSegmentBytes;
+		long capacity = Math.max(INITIAL_CAPACITY, initialCapacity);
+		allocate(Long.highestOneBit(capacity - 1) << 1);
+	}
+
+	public long size() {
+		return currentLoad;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public long capacity() {
+		return mask + 1;
+	}
+
+	public int getKeyWidth() {
+		return keyWidth;
+	}
+
+	public int getValueWidth() {
+		return valueWidth;
+	}
+
+	public boolean containsKey(byte[] key) {
+		return indexOf(checkKey(key)) >= 0;
+	}
+
+	/**
+	 * Copies the value of the key into the given array, without allocating.
+	 * @return true iff the key is in the table.
+	 */
+	public boolean get(byte[] key, byte[] value) {
+		checkWidth(value, valueWidth, "value");
+		long index = indexOf(checkKey(key));
+		if (index < 0) {
+			return false;
+		}
+		read(index, TAG_WIDTH + keyWidth, value);
+		return true;
+	}
+
+	/**
+	 * @return a copy of the value of the key, or null if the key is not in the table.
+	 */
+	public byte[] get(byte[] key) {
+		byte[] value = new byte[valueWidth];
+		return get(key, value) ? value : null;
+	}
+
+	/**
+	 * @return true iff the key was not in the table before.
+	 */
+	public boolean put(byte[] key, byte[] value) {
+		checkKey(key);
+		checkWidth(value, valueWidth, "value");
+		if (capacity() * 0.8 < currentLoad) {
+			realloc(largerCapacity());
+		}
+		long hash = hash(key);
+		int tag = tag(hash);
+		for (long i = hash & mask; ; i = (i + 1) & mask) {
+			ByteBuffer segment = segments[segment(i)];
+			int offset = offset(i);
+			int slotTag = segment.getInt(offset);
+			if (slotTag == EMPTY) {
+				segment.putInt(offset, tag);
+				write(segment, offset + TAG_WIDTH, key);
+				write(segment, offset + TAG_WIDTH + keyWidth, value);
+				currentLoad++;
+				return true;
+			}
+			if (slotTag == tag && keyEquals(segment, offset + TAG_WIDTH, key)) {
+				write(segment, offset + TAG_WIDTH + keyWidth, value);
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * @return true iff the key was in the table.
+	 */
+	public boolean remove(byte[] key) {
+		long index = indexOf(checkKey(key));
+		if (index < 0) {
+			return false;
+		}
+		segments[segment(index)].putInt(offset(index), EMPTY);
+		currentLoad--;
+		fixTable(index);
+		return true;
+	}
+
+	/**
+	 * Frees the memory of the table and starts over with the initial capacity.
+	 */
+	public void clear() {
+		checkOpen();
+		free();
+		allocate(INITIAL_CAPACITY);
+		currentLoad = 0;
+	}
+
+	/**
+	 * Passes a fresh copy of every key and value to the action.
+	 */
+	public void forEach(BiConsumer<byte[], byte[]> action) {
+		checkOpen();
+		for (long i = 0; i <= mask; ++i) {
+			if (segments[segment(i)].getInt(offset(i)) != EMPTY) {
+				byte[] key = new byte[keyWidth];
+				byte[] value = new byte[valueWidth];
+				read(i, TAG_WIDTH, key);
+				read(i, TAG_WIDTH + keyWidth, value);
+				action.accept(key, value);
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (!closed) {
+			free();
+			segments = null;
+			closed = true;
+		}
+	}
+
+	private long indexOf(byte[] key) {
+		long hash = hash(key);
+		int tag = tag(hash);
+		for (long i = hash & mask; ; i = (i + 1) & mask) {
+			ByteBuffer segment = segments[segment(i)];
+			int offset = offset(i);
+			int slotTag = segment.getInt(offset);
+			if (slotTag == EMPTY) {
+				return -1;
+			}
+			if (slotTag == tag && keyEquals(segment, offset + TAG_WIDTH, key)) {
+				return i;
+			}
+		}
+	}
+
+	private void realloc(long newCapacity) {
+		ByteBuffer[] oldSegments = segments;
+		long oldCapacity = capacity();
+		int oldSegmentShift = segmentShift;
+		long oldSegmentMask = segmentMask;
+		allocate(newCapacity);
+		for (long j = 0; j < oldCapacity; ++j) {
+			ByteBuffer oldSegment = oldSegments[(int) (j >>> oldSegmentShift)];
+			int oldOffset = (int) (j & oldSegmentMask) * slotWidth;
+			if (oldSegment.getInt(oldOffset) != EMPTY) {
+				long i = hash(oldSegment, oldOffset + TAG_WIDTH) & mask;
+				while (segments[segment(i)].getInt(offset(i)) != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				copySlot(oldSegment, oldOffset, segments[segment(i)], offset(i));
+			}
+		}
+		for (ByteBuffer segment : oldSegments) {
+			DirectMemory.free(segment);
+		}
+	}
+
+	/**
+	 * Shifts back the entries following the slot which has just been emptied, so that no probe sequence is broken.
+	 */
+	private void fixTable(long start) {
+		long i = (start + 1) & mask;
+		while (true) {
+			ByteBuffer segment = segments[segment(i)];
+			int offset = offset(i);
+			if (segment.getInt(offset) == EMPTY) {
+				break;
+			}
+			long hash = hash(segment, offset + TAG_WIDTH) & mask;
+			if (start <= i ? (hash <= start || hash > i) : (hash <= start && hash > i)) {
+				copySlot(segment, offset, segments[segment(start)], offset(start));
+				segment.putInt(offset, EMPTY);
+				start = i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private long largerCapacity() {
+		long capacity = capacity();
+		if (capacity > Long.MAX_VALUE / (slotWidth * 2L)) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		return capacity << 1;
+	}
+
+	private void allocate(long capacity) {
+		long slotsPerSegment = Long.highestOneBit(maxSegmentBytes / slotWidth);
+		long segmentSlots = Math.min(capacity, slotsPerSegment);
+		int segmentCount = (int) (capacity / segmentSlots);
+		segments = new ByteBuffer[segmentCount];
+		for (int i = 0; i < segmentCount; ++i) {
+			segments[i] = ByteBuffer.allocateDirect((int) (segmentSlots * slotWidth)).order(ByteOrder.nativeOrder());
+		}
+		mask = capacity - 1;
+		segmentShift = Long.numberOfTrailingZeros(segmentSlots);
+		segmentMask = segmentSlots - 1;
+	}
+
+	private void free() {
+		for (ByteBuffer segment : segments) {
+			DirectMemory.free(segment);
+		}
+	}
+
+	private int segment(long index) {
+		return (int) (index >>> segmentShift);
+	}
+
+	private int offset(long index) {
+		return (int) (index & segmentMask) * slotWidth;
+	}
+
+	private void copySlot(ByteBuffer from, int fromOffset, ByteBuffer to, int toOffset) {
+		for (int b = 0; b < slotWidth; ++b) {
+			to.put(toOffset + b, from.get(fromOffset + b));
+		}
+	}
+
+	private void read(long index, int position, byte[] dst) {
+		ByteBuffer segment = segments[segment(index)];
+		int offset = offset(index) + position;
+		for (int b = 0; b < dst.length; ++b) {
+			dst[b] = segment.get(offset + b);
+		}
+	}
+
+	private static void write(ByteBuffer segment, int offset, byte[] src) {
+		for (int b = 0; b < src.length; ++b) {
+			segment.put(offset + b, src[b]);
+		}
+	}
+
+	private boolean keyEquals(ByteBuffer segment, int offset, byte[] key) {
+		for (int b = 0; b < keyWidth; ++b) {
+			if (segment.get(offset + b) != key[b]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private byte[] checkKey(byte[] key) {
+		checkOpen();
+		checkWidth(key, keyWidth, "key");
+		return key;
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("The hash table is closed");
+		}
+	}
+
+	private static void checkWidth(byte[] bytes, int width, String what) {
+		if (bytes.length != width) {
+			throw new IllegalArgumentException("Expected a " + what + " of " + width + " bytes, got " + bytes.length);
+		}
+	}
+
+	private static int tag(long hash) {
+		return (int) (hash >>> 32) | OCCUPIED;
+	}
+
+	/**
+	 * FNV-1a over the key bytes, mixed so that the low bits used for indexing depend on every byte of the key.
+	 */
+	private long hash(byte[] key) {
+		long h = FNV_OFFSET;
+		for (int b = 0; b < keyWidth; ++b) {
+			h = (h ^ (key[b] & 0xff)) * FNV_PRIME;
+		}
+		return Hashing.mix64(h);
+	}
+
+	private long hash(ByteBuffer segment, int offset) {
+		long h = FNV_OFFSET;
+		for (int b = 0; b < keyWidth; ++b) {
+			h = (h ^ (segment.get(offset + b) & 0xff)) * FNV_PRIME;
+		}
+		return Hashing.mix64(h);
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+/**
+ * A probing function over power of two tables which works on primitives, so a probe neither boxes nor divides.
+ * @param <K> is the type of the keys in the hash table.
+ */
+@FunctionalInterface
+interface ProbingStrategy<K> {
+
+	/**
+	 * Walks forward slot by slot from {@code hash & mask}.
+	 */
+	ProbingStrategy<Object> LINEAR = (key, hash, offset, mask) -> (hash + offset) & mask;
+
+	/**
+	 * Jumps from {@code hash & mask} by 1, 2, 3... slots, so the offsets are the triangular numbers, which visit every
+	 * slot of a power of two table. Keys which share a home slot still share their probe sequence, but neighboring
+	 * home slots no longer merge into one cluster.
+	 */
+	ProbingStrategy<Object> QUADRATIC = (key, hash, offset, mask) -> (hash + (offset * (offset + 1) >>> 1)) & mask;
+
+	/**
+	 * Walks from {@code hash & mask} by a step taken from the high bits of the hash, which is odd and so visits every
+	 * slot of a power of two table. Keys which share a home slot mostly part ways after it.
+	 */
+	ProbingStrategy<Object> DOUBLE_HASHING = (key, hash, offset, mask) ->
+			(hash + offset * (Integer.rotateRight(hash, 16) | 1)) & mask;
+
+	/**
+	 * @param key is the probed key, needed only by strategies which cannot work with its hash code alone.
+	 * @param hash is the spread hash code of the key.
+	 * @param offset is the index of the probe in the probe sequence, starting from 0.
+	 * @param mask is the capacity of the table minus one, where the capacity is a power of two.
+	 * @return the slot to probe.
+	 */
+	int apply(K key, int hash, int offset, int mask);
+
+	/**
+	 * Adapts a {@link ProbingHashFunction}, which is given the key, the offset and the capacity of the table.
+	 */
+	static <K> ProbingStrategy<K> of(ProbingHashFunction<K> function) {
+		return (key, hash, offset, mask) -> function.apply(key, offset, mask + 1);
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+/**
+ * The mutable counters behind {@link HashTableStatistics}. A table without statistics holds no recorder at all, so
+ * the only cost it pays is a null check on the paths which would record.
+ */
+final class StatisticsRecorder {
+
+	private final long[] hitProbeLengths = new long[HashTableStatistics.HISTOGRAM_BUCKETS];
+	private final long[] missProbeLengths = new long[HashTableStatistics.HISTOGRAM_BUCKETS];
+	private long growCount;
+	private long shrinkCount;
+	private long growNanos;
+	private long shrinkNanos;
+	private long shiftedEntries;
+
+	void recordHit(int probeLength) {
+		hitProbeLengths[HashTableStatistics.histogramBucket(probeLength)]++;
+	}
+
+	void recordMiss(int probeLength) {
+		missProbeLengths[HashTableStatistics.histogramBucket(probeLength)]++;
+	}
+
+	void recordResize(boolean grow) {
+		if (grow) {
+			growCount++;
+		} else {
+			shrinkCount++;
+		}
+	}
+
+	void recordResizeTime(boolean grow, long nanos) {
+		if (grow) {
+			growNanos += nanos;
+		} else {
+			shrinkNanos += nanos;
+		}
+	}
+
+	void recordShifts(int entries) {
+		shiftedEntries += entries;
+	}
+
+	HashTableStatistics snapshot(int longestCluster) {
+		return new HashTableStatistics(hitProbeLengths.clone(), missProbeLengths.clone(), longestCluster, growCount,
+				shrinkCount, growNanos, shrinkNanos, shiftedEntries);
+	}
+
+}
@@ -0,0 +1,304 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A hash table in the style of SwissTable: every slot has a control byte, which is either empty, deleted, or holds 7
+ * bits of the hash code of the key in the slot. The control bytes of 8 consecutive slots are packed into a
+ * {@code long}, and a probe compares the 7 bits of the probed key against a whole group at once with SWAR arithmetic,
+ * so most lookups read a single word of metadata and call equals only on the slots whose bits match.
+ * Groups are probed along a triangular sequence, which visits every group of a power of two table.
+ * Removing a key leaves a deleted marker, unless its group holds an empty slot already, in which case no probe ever
+ * went past the group and the slot may simply become empty.
+ * @param <K> is the type of the keys in the hash table.
+ * @param <V> is the type to be stored as value in the hash table.
+ */
+public class SwissHashTable<K, V> implements HashTable<K, V> {
+
+	private static final int GROUP_SIZE = 8;
+	private static final int GROUP_SHIFT = 3;
+	private static final long LSB = 0x0101010101010101L;
+	private static final long MSB = 0x8080808080808080L;
+	private static final byte EMPTY = (byte) 0x80;
+	private static final byte DELETED = (byte) 0xFE;
+	private static final long ALL_EMPTY = LSB * (EMPTY & 0xFF);
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] control;
+	private K[] keys;
+	private V[] values;
+	private int[] hashes;
+	private int groupMask;
+	private int currentLoad;
+	private int growthLeft;
+
+	public SwissHashTable() {
+		allocate(INITIAL_CAPACITY);
+	}
+
+	@Override
+	public int size() {
+		return currentLoad;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * @return the number of slots of the table.
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(Objects.requireNonNull(key), spread(key)) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null && Objects.equals(values[i], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V get(Object key) {
+		int index = indexOf(Objects.requireNonNull(key), spread(key));
+		return index < 0 ? null : values[index];
+	}
+
+	@Override
+	public V put(K key, V value) {
+		int keyHash = spread(Objects.requireNonNull(key));
+		int index = indexOf(key, keyHash);
+		if (index >= 0) {
+			V oldValue = values[index];
+			values[index] = value;
+			return oldValue;
+		}
+		index = findFreeSlot(keyHash);
+		if (growthLeft == 0 && control(index) == EMPTY) {
+			// mostly deleted markers are purged in place, like SwissTable does below 25/32 of live slots
+			realloc((long) currentLoad * 32 > (long) keys.length * 25 ? largerCapacity() : keys.length);
+			index = findFreeSlot(keyHash);
+		}
+		if (control(index) == EMPTY) {
+			growthLeft--;
+		}
+		setControl(index, (byte) (keyHash & 0x7F));
+		keys[index] = key;
+		values[index] = value;
+		hashes[index] = keyHash;
+		currentLoad++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		int index = indexOf(Objects.requireNonNull(key), spread(key));
+		if (index < 0) {
+			return null;
+		}
+		V value = values[index];
+		keys[index] = null;
+		values[index] = null;
+		currentLoad--;
+		if (matchEmpty(control[index >>> GROUP_SHIFT]) != 0) {
+			setControl(index, EMPTY);
+			growthLeft++;
+		} else {
+			setControl(index, DELETED);
+		}
+		return value;
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		m.forEach(this::put);
+	}
+
+	@Override
+	public void clear() {
+		allocate(INITIAL_CAPACITY);
+		currentLoad = 0;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		for (int i = 0; i < keys.length; ++i) {
+			if (keys[i] != null) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	@Override
+	public Iterator<K> keysIterator() {
+		return new Iterator<K>() {
+
+			private int index = findNextIndex(-1);
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return index < keys.length;
+			}
+
+			@Override
+			public K next() {
+				if (index >= keys.length) {
+					throw new NoSuchElementException();
+				}
+				last = index;
+				index = findNextIndex(index);
+				return keys[last];
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0) {
+					throw new IllegalStateException();
+				}
+				SwissHashTable.this.remove(keys[last]); // removals never move the other entries
+				last = -1;
+			}
+
+			private int findNextIndex(int from) {
+				for (int i = from + 1; i < keys.length; ++i) {
+					if (keys[i] != null) {
+						return i;
+					}
+				}
+				return keys.length;
+			}
+		};
+	}
+
+	private int indexOf(Object key, int keyHash) {
+		long pattern = LSB * (keyHash & 0x7F);
+		int group = (keyHash >>> 7) & groupMask;
+		for (int i = 1; i <= groupMask + 1; ++i) {
+			long word = control[group];
+			for (long matches = matchByte(word, pattern); matches != 0; matches &= matches - 1) {
+				int index = (group << GROUP_SHIFT) + (Long.numberOfTrailingZeros(matches) >>> 3);
+				if (hashes[index] == keyHash && keys[index] != null && keys[index].equals(key)) {
+					return index;
+				}
+			}
+			if (matchEmpty(word) != 0) {
+				return -1;
+			}
+			group = (group + i) & groupMask;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the first empty or deleted slot along the probe sequence of the hash code.
+	 */
+	private int findFreeSlot(int keyHash) {
+		int group = (keyHash >>> 7) & groupMask;
+		for (int i = 1; ; ++i) {
+			long free = matchEmptyOrDeleted(control[group]);
+			if (free != 0) {
+				return (group << GROUP_SHIFT) + (Long.numberOfTrailingZeros(free) >>> 3);
+			}
+			group = (group + i) & groupMask;
+		}
+	}
+
+	/**
+	 * @return a word whose high bit is set in every byte of {@code word} which equals the byte of {@code pattern}.
+	 * A byte which follows a match may be reported falsely, so every match is verified against the keys.
+	 */
+	private static long matchByte(long word, long pattern) {
+		long x = word ^ pattern;
+		return (x - LSB) & ~x & MSB;
+	}
+
+	/**
+	 * Empty is the only control byte whose high bit is set and whose second lowest bit is clear.
+	 */
+	private static long matchEmpty(long word) {
+		return word & ~(word << 6) & MSB;
+	}
+
+	/**
+	 * Empty and deleted are the only control bytes whose high bit is set and whose lowest bit is clear.
+	 */
+	private static long matchEmptyOrDeleted(long word) {
+		return word & ~(word << 7) & MSB;
+	}
+
+	private byte control(int index) {
+		return (byte) (control[index >>> GROUP_SHIFT] >>> ((index & (GROUP_SIZE - 1)) << 3));
+	}
+
+	private void setControl(int index, byte value) {
+		int shift = (index & (GROUP_SIZE - 1)) << 3;
+		int group = index >>> GROUP_SHIFT;
+		control[group] = (control[group] & ~(0xFFL << shift)) | ((value & 0xFFL) << shift);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void allocate(int capacity) {
+		control = new long[capacity >>> GROUP_SHIFT];
+		Arrays.fill(control, ALL_EMPTY);
+		keys = (K[]) new Object[capacity];
+		values = (V[]) new Object[capacity];
+		hashes = new int[capacity];
+		groupMask = (capacity >>> GROUP_SHIFT) - 1;
+		growthLeft = maxLoad(capacity);
+	}
+
+	/**
+	 * Rehashes the live entries into the given capacity, which drops all the deleted markers.
+	 */
+	private void realloc(int newCapacity) {
+		K[] oldKeys = keys;
+		V[] oldValues = values;
+		int[] oldHashes = hashes;
+		allocate(newCapacity);
+		for (int j = 0; j < oldKeys.length; ++j) {
+			if (oldKeys[j] != null) {
+				int index = findFreeSlot(oldHashes[j]);
+				setControl(index, (byte) (oldHashes[j] & 0x7F));
+				keys[index] = oldKeys[j];
+				values[index] = oldValues[j];
+				hashes[index] = oldHashes[j];
+				growthLeft--;
+			}
+		}
+	}
+
+	/**
+	 * A table is never more than 7/8 full, counting deleted markers, so every probe sequence meets an empty slot.
+	 */
+	private static int maxLoad(int capacity) {
+		return capacity - (capacity >>> 3);
+	}
+
+	private int largerCapacity() {
+		if (keys.length == Hashing.MAX_CAPACITY) {
+			throw new ArrayStoreException("The load on the hash table is too large");
+		}
+		return keys.length << 1;
+	}
+
+	private static int spread(Object key) {
+		return Hashing.mix(key.hashCode());
+	}
+
+}
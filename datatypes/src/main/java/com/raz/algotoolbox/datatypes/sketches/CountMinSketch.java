@@ -0,0 +1,124 @@
+package com.raz.algotoolbox.datatypes.sketches;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+/**
+ * Estimates how many times every item was added, in a fixed amount of memory: a few rows of counters, every item
+ * adding its count to one counter per row. An estimate is the smallest counter of the item, which is never below its
+ * actual count, and which exceeds it by at most {@code epsilon} times the total count with the requested confidence.
+ * Two sketches of the same dimensions are merged by adding their counters.
+ * @param <T> is the type of the counted items.
+ */
+public class CountMinSketch<T> {
+
+	private final int depth;
+	private final int widthMask;
+	private final long[] counters;
+	private long totalCount;
+
+	/**
+	 * @param epsilon is the error of the estimates relative to the total count, which sets the width of the rows.
+	 * @param confidence is the probability that an estimate stays within that error, which sets the number of rows.
+	 */
+	public CountMinSketch(double epsilon, double confidence) {
+		if (!(epsilon > 0 && epsilon < 1)) {
+			throw new IllegalArgumentException("Illegal epsilon: " + epsilon);
+		}
+		if (!(confidence > 0 && confidence < 1)) {
+			throw new IllegalArgumentException("Illegal confidence: " + confidence);
+		}
+		int width = Integer.highestOneBit((int) Math.min(Math.ceil(Math.E / epsilon), 1 << 30) - 1) << 1;
+		this.depth = (int) Math.max(1, Math.ceil(Math.log(1 / (1 - confidence))));
+		if ((long) depth * width > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("The sketch would be too large for epsilon " + epsilon
+					+ " and confidence " + confidence);
+		}
+		this.widthMask = width - 1;
+		this.counters = new long[depth * width];
+	}
+
+	public void add(T item) {
+		add(item, 1);
+	}
+
+	/**
+	 * Adds the given number of occurrences of the item.
+	 */
+	public void add(T item, long count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Illegal count: " + count);
+		}
+		long hash = SketchHashing.hash(Objects.requireNonNull(item));
+		for (int row = 0; row < depth; ++row) {
+			counters[indexOf(hash, row)] += count;
+		}
+		totalCount += count;
+	}
+
+	/**
+	 * @return an upper bound of the number of occurrences of the item.
+	 */
+	public long estimateCount(T item) {
+		long hash = SketchHashing.hash(Objects.requireNonNull(item));
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < depth; ++row) {
+			estimate = Math.min(estimate, counters[indexOf(hash, row)]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * Adds the counts of the other sketch to this one.
+	 * @throws IllegalArgumentException if the sketches differ in dimensions.
+	 */
+	public void merge(CountMinSketch<? extends T> other) {
+		if (other.depth != depth || other.widthMask != widthMask) {
+			throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+		}
+		for (int i = 0; i < counters.length; ++i) {
+			counters[i] += other.counters[i];
+		}
+		totalCount += other.totalCount;
+	}
+
+	/**
+	 * @return the sum of all the counts added to the sketch.
+	 */
+	public long totalCount() {
+		return totalCount;
+	}
+
+	public void clear() {
+		Arrays.fill(counters, 0);
+		totalCount = 0;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public int getWidth() {
+		return widthMask + 1;
+	}
+
+	/**
+	 * @return a collector which counts the items of a stream, merging the sketches of parallel substreams.
+	 */
+	public static <T> Collector<T, ?, CountMinSketch<T>> collector(double epsilon, double confidence) {
+		return Collector.of(() -> new CountMinSketch<T>(epsilon, confidence), CountMinSketch::add, (left, right) -> {
+			left.merge(right);
+			return left;
+		}, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	/**
+	 * The counter of every row is derived from the two halves of the hash by double hashing.
+	 */
+	private int indexOf(long hash, int row) {
+		int h = (int) hash + row * (int) (hash >>> 32);
+		return row * (widthMask + 1) + ((h ^ (h >>> 16)) & widthMask);
+	}
+
+}
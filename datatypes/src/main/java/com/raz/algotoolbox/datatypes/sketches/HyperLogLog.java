@@ -0,0 +1,133 @@
+package com.raz.algotoolbox.datatypes.sketches;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+/**
+ * Estimates the number of distinct items it was given in a fixed amount of memory, one byte per register, with a
+ * relative standard error of about {@code 1.04 / sqrt(registers)}.
+ * Every item is hashed to a register, which remembers the longest run of leading zeros seen in the remaining bits of
+ * the hashes sent to it. Adding an item twice has no effect, and two sketches of the same precision are merged by
+ * keeping the larger of every pair of registers, which gives the sketch of the union of their items.
+ * @param <T> is the type of the counted items.
+ */
+public class HyperLogLog<T> {
+
+	public static final int MIN_PRECISION = 4;
+	public static final int MAX_PRECISION = 18;
+
+	private final int precision;
+	private final byte[] registers;
+
+	/**
+	 * @param precision is the base two logarithm of the number of registers.
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+			throw new IllegalArgumentException("The precision must be between " + MIN_PRECISION + " and "
+					+ MAX_PRECISION + ", got " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * @return true iff the item changed the sketch, which is certainly the case if it was not added before.
+	 */
+	public boolean add(T item) {
+		long hash = SketchHashing.hash(Objects.requireNonNull(item));
+		int index = (int) (hash >>> (Long.SIZE - precision));
+		// the sentinel bit bounds the run of zeros by the number of remaining bits
+		byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+		if (rank > registers[index]) {
+			registers[index] = rank;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the items of the other sketch to this one.
+	 * @throws IllegalArgumentException if the sketches differ in precision.
+	 */
+	public void merge(HyperLogLog<? extends T> other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("Cannot merge sketches of precisions " + precision + " and "
+					+ other.precision);
+		}
+		for (int i = 0; i < registers.length; ++i) {
+			if (other.registers[i] > registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * @return the estimated number of distinct items added to the sketch.
+	 */
+	public long cardinality() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += Math.scalb(1.0, -register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double estimate = alpha(m) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			estimate = m * Math.log((double) m / zeros); // linear counting is more accurate for small cardinalities
+		}
+		return Math.round(estimate);
+	}
+
+	public boolean isEmpty() {
+		for (byte register : registers) {
+			if (register != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public void clear() {
+		Arrays.fill(registers, (byte) 0);
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * @return the relative standard error of the estimates of the sketch.
+	 */
+	public double standardError() {
+		return 1.04 / Math.sqrt(registers.length);
+	}
+
+	/**
+	 * @return a collector which counts the distinct items of a stream, merging the sketches of parallel substreams.
+	 */
+	public static <T> Collector<T, ?, HyperLogLog<T>> collector(int precision) {
+		return Collector.of(() -> new HyperLogLog<T>(precision), HyperLogLog::add, (left, right) -> {
+			left.merge(right);
+			return left;
+		}, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	private static double alpha(int m) {
+		switch (m) {
+			case 16:
+				return 0.673;
+			case 32:
+				return 0.697;
+			case 64:
+				return 0.709;
+			default:
+				return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+
+}
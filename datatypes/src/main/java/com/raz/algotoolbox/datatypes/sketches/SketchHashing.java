@@ -0,0 +1,24 @@
+package com.raz.algotoolbox.datatypes.sketches;
+
+/**
+ * The hashing shared by the sketches in this package. Sketches can only be merged if they hash their items alike, so
+ * the hash depends on nothing but the hash code of the item.
+ */
+final class SketchHashing {
+
+	private SketchHashing() {}
+
+	/**
+	 * The 64-bit finalizer of MurmurHash3 applied to the hash code of the item: every bit of the result depends on
+	 * every bit of the hash code.
+	 */
+	static long hash(Object item) {
+		long h = item.hashCode();
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		return h ^ (h >>> 33);
+	}
+
+}
@@ -0,0 +1,254 @@
+package com.raz.algotoolbox.datatypes.sketches;
+
+import com.raz.algotoolbox.datatypes.hashtables.LinearProbingHashTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+/**
+ * Tracks the most frequent items with a fixed number of counters, by the SpaceSaving algorithm: an item without a
+ * counter takes over the smallest counter, and inherits its count as the error of its own. Hence the count of a
+ * tracked item is never below its actual count and exceeds it by at most its error, and every item which occurred more
+ * often than the total count over the number of counters is tracked.
+ * The counters are kept in a binary min-heap, so an update takes logarithmic time in the number of counters. Two
+ * summaries are merged by adding their counters, where an item missing from a full summary is counted as its
+ * smallest count, and keeping the largest counters.
+ * @param <T> is the type of the counted items.
+ */
+public class SpaceSaving<T> {
+
+	private final int capacity;
+	private final LinearProbingHashTable<T, Counter<T>> counters;
+	private final Counter<T>[] heap;
+	private int size;
+	private long totalCount;
+
+	/**
+	 * @param capacity is the number of counters, which is the number of items tracked at once.
+	 */
+	@SuppressWarnings("unchecked")
+	public SpaceSaving(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		}
+		this.capacity = capacity;
+		this.counters = new LinearProbingHashTable<>();
+		this.counters.ensureCapacity(capacity);
+		this.heap = (Counter<T>[]) new Counter<?>[capacity];
+	}
+
+	public void add(T item) {
+		add(item, 1);
+	}
+
+	/**
+	 * Adds the given number of occurrences of the item.
+	 */
+	public void add(T item, long count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("Illegal count: " + count);
+		}
+		Objects.requireNonNull(item);
+		totalCount += count;
+		Counter<T> counter = counters.get(item);
+		if (counter == null) {
+			if (size < capacity) {
+				counter = new Counter<>(item, count, 0);
+				counters.put(item, counter);
+				push(counter);
+				return;
+			}
+			counter = heap[0];
+			counters.remove(counter.item);
+			counter.item = item;
+			counter.error = counter.count;
+			counters.put(item, counter);
+		}
+		counter.count += count;
+		siftDown(counter.index);
+	}
+
+	/**
+	 * @return an upper bound of the number of occurrences of the item.
+	 */
+	public long estimateCount(T item) {
+		Counter<T> counter = counters.get(Objects.requireNonNull(item));
+		return counter != null ? counter.count : minCount();
+	}
+
+	/**
+	 * @return the counters of at most k items with the largest counts, in decreasing order of count.
+	 */
+	public List<Counter<T>> topK(int k) {
+		Counter<T>[] sorted = Arrays.copyOf(heap, size);
+		Arrays.sort(sorted, Comparator.comparingLong((Counter<T> c) -> c.count).reversed());
+		List<Counter<T>> top = new ArrayList<>(Math.min(k, size));
+		for (int i = 0; i < Math.min(k, size); ++i) {
+			top.add(new Counter<>(sorted[i].item, sorted[i].count, sorted[i].error));
+		}
+		return top;
+	}
+
+	/**
+	 * Merges the other summary into this one. The counters of both summaries are combined, an item tracked by only one
+	 * of them being given the minimum count of the other as both count and error, and the {@code capacity} largest
+	 * merged counters are kept.
+	 */
+	public void merge(SpaceSaving<? extends T> other) {
+		long minCount = minCount();
+		long otherMinCount = other.minCount();
+		List<Counter<T>> merged = new ArrayList<>(size + other.size);
+		for (int i = 0; i < size; ++i) {
+			Counter<T> counter = heap[i];
+			Counter<? extends T> match = other.counters.get(counter.item);
+			merged.add(match == null
+					? new Counter<>(counter.item, counter.count + otherMinCount, counter.error + otherMinCount)
+					: new Counter<>(counter.item, counter.count + match.count, counter.error + match.error));
+		}
+		for (int i = 0; i < other.size; ++i) {
+			Counter<? extends T> counter = other.heap[i];
+			if (!counters.containsKey(counter.item)) {
+				merged.add(new Counter<>(counter.item, counter.count + minCount, counter.error + minCount));
+			}
+		}
+		merged.sort(Comparator.comparingLong((Counter<T> c) -> c.count).reversed());
+		long mergedTotal = totalCount + other.totalCount;
+		clear();
+		totalCount = mergedTotal;
+		for (int i = 0; i < Math.min(capacity, merged.size()); ++i) {
+			push(merged.get(i));
+			counters.put(merged.get(i).item, merged.get(i));
+		}
+	}
+
+	/**
+	 * @return the number of tracked items.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the sum of all the counts added to the summary.
+	 */
+	public long totalCount() {
+		return totalCount;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void clear() {
+		counters.clear();
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+		totalCount = 0;
+	}
+
+	/**
+	 * @return a collector which counts the items of a stream, merging the summaries of parallel substreams.
+	 */
+	public static <T> Collector<T, ?, SpaceSaving<T>> collector(int capacity) {
+		return Collector.of(() -> new SpaceSaving<T>(capacity), SpaceSaving::add, (left, right) -> {
+			left.merge(right);
+			return left;
+		}, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+	}
+
+	/**
+	 * An untracked item occurred at most as often as the smallest count of a full summary.
+	 */
+	private long minCount() {
+		return size < capacity ? 0 : heap[0].count;
+	}
+
+	private void push(Counter<T> counter) {
+		heap[size] = counter;
+		counter.index = size++;
+		siftUp(counter.index);
+	}
+
+	private void siftUp(int index) {
+		Counter<T> counter = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (heap[parent].count <= counter.count) {
+				break;
+			}
+			setAt(index, heap[parent]);
+			index = parent;
+		}
+		setAt(index, counter);
+	}
+
+	private void siftDown(int index) {
+		Counter<T> counter = heap[index];
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+				child++;
+			}
+			if (counter.count <= heap[child].count) {
+				break;
+			}
+			setAt(index, heap[child]);
+			index = child;
+		}
+		setAt(index, counter);
+	}
+
+	private void setAt(int index, Counter<T> counter) {
+		heap[index] = counter;
+		counter.index = index;
+	}
+
+	/**
+	 * The count of a tracked item, along with the error which the count may exceed its actual count by.
+	 */
+	public static final class Counter<T> {
+
+		private T item;
+		private long count;
+		private long error;
+		private int index;
+
+		private Counter(T item, long count, long error) {
+			this.item = item;
+			this.count = count;
+			this.error = error;
+		}
+
+		public T getItem() {
+			return item;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getError() {
+			return error;
+		}
+
+		/**
+		 * @return the number of occurrences of the item which are certain.
+		 */
+		public long getGuaranteedCount() {
+			return count - error;
+		}
+
+		@Override
+		public String toString() {
+			return item + "=" + count + " (error " + error + ")";
+		}
+	}
+
+}
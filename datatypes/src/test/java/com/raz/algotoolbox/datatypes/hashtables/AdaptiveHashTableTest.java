@@ -0,0 +1,84 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveHashTableTest {
+
+	@Test
+	public void testMatchesReference() {
+		AdaptiveHashTable<Integer, Integer> table = new AdaptiveHashTable<>();
+		Map<Integer, Integer> reference = new HashMap<>();
+		Random rand = new Random(29);
+		for (int i = 0; i < 100000; ++i) {
+			// a key range around the inline limit, so the table moves its entries back and forth
+			int key = rand.nextInt(16);
+			switch (rand.nextInt(4)) {
+				case 0:
+					assertEquals(reference.remove(key), table.remove(key));
+					break;
+				case 1:
+					assertEquals(reference.merge(key, 1, (a, b) -> a + b > 3 ? null : a + b),
+							table.merge(key, 1, (a, b) -> a + b > 3 ? null : a + b));
+					break;
+				default:
+					assertEquals(reference.put(key, i), table.put(key, i));
+			}
+			assertEquals(reference.size(), table.size());
+			assertEquals(reference.containsKey(key), table.containsKey(key));
+			assertEquals(reference.get(key), table.get(key));
+		}
+	}
+
+	@Test
+	public void testInflateAndDeflate() {
+		AdaptiveHashTable<String, Integer> table = new AdaptiveHashTable<>();
+		for (int i = 0; i < AdaptiveHashTable.MAX_INLINE; ++i) {
+			table.put("key" + i, i);
+		}
+		assertFalse(table.isInflated());
+		table.put("key" + AdaptiveHashTable.MAX_INLINE, AdaptiveHashTable.MAX_INLINE);
+		assertTrue(table.isInflated());
+		for (int i = AdaptiveHashTable.MAX_INLINE; i >= AdaptiveHashTable.MAX_INLINE / 2; --i) {
+			assertTrue(table.isInflated());
+			assertEquals(Integer.valueOf(i), table.remove("key" + i));
+		}
+		assertFalse(table.isInflated());
+		assertEquals(AdaptiveHashTable.MAX_INLINE / 2, table.size());
+		for (int i = 0; i < AdaptiveHashTable.MAX_INLINE / 2; ++i) {
+			assertEquals(Integer.valueOf(i), table.get("key" + i));
+		}
+		table.clear();
+		assertTrue(table.isEmpty());
+		assertFalse(table.containsKey("key0"));
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		for (int n : new int[] {AdaptiveHashTable.MAX_INLINE, 100}) {
+			AdaptiveHashTable<Integer, Integer> table = new AdaptiveHashTable<>();
+			for (int i = 0; i < n; ++i) {
+				table.put(i, i);
+			}
+			int visited = 0;
+			for (Iterator<Integer> it = table.keysIterator(); it.hasNext(); ) {
+				if (it.next() % 2 == 0) {
+					it.remove();
+				}
+				visited++;
+			}
+			assertEquals(n, visited);
+			assertEquals(n / 2, table.size());
+			table.forEach((k, v) -> assertTrue(k % 2 != 0 && k.equals(v)));
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class BlockedBloomFilterTest {
+
+	@Test
+	public void testNoFalseNegatives() {
+		BlockedBloomFilter filter = new BlockedBloomFilter(100000, 0.01);
+		for (int i = 0; i < 100000; ++i) {
+			filter.add(i * 7);
+		}
+		for (int i = 0; i < 100000; ++i) {
+			assertTrue(filter.mightContain(i * 7));
+		}
+	}
+
+	@Test
+	public void testFalsePositiveRate() {
+		int n = 100000;
+		BlockedBloomFilter filter = new BlockedBloomFilter(n, 0.01);
+		assertTrue(filter.bitSize() >= 9.5 * n);
+		for (int i = 0; i < n; ++i) {
+			filter.add("key" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < n; ++i) {
+			if (filter.mightContain("absent" + i)) {
+				falsePositives++;
+			}
+		}
+		// blocking costs a little accuracy over a classic Bloom filter
+		assertTrue("false positives: " + falsePositives, falsePositives < n * 0.02);
+	}
+
+	@Test
+	public void testTinyFilter() {
+		BlockedBloomFilter filter = new BlockedBloomFilter(0, 0.5);
+		filter.add("a");
+		assertTrue(filter.mightContain("a"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalFalsePositiveRate() {
+		new BlockedBloomFilter(10, 1.0);
+	}
+
+}
@@ -0,0 +1,159 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentLinearProbingHashTableTest {
+
+	private static final int THREADS = 8;
+
+	@Test
+	public void testMatchesReference() {
+		ConcurrentLinearProbingHashTable<Integer, Integer> hashTable = new ConcurrentLinearProbingHashTable<>();
+		Map<Integer, Integer> reference = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 50000; ++i) {
+			int key = rand.nextInt(5000);
+			switch (rand.nextInt(4)) {
+				case 0:
+					assertEquals(reference.remove(key), hashTable.remove(key));
+					break;
+				case 1:
+					assertEquals(reference.putIfAbsent(key, i), hashTable.putIfAbsent(key, i));
+					break;
+				default:
+					assertEquals(reference.put(key, i), hashTable.put(key, i));
+			}
+		}
+		assertEquals(reference.size(), hashTable.size());
+		for (int key = 0; key < 5000; ++key) {
+			assertEquals(reference.get(key), hashTable.get(key));
+		}
+		Set<Integer> iterated = new HashSet<>();
+		for (Iterator<Integer> iter = hashTable.keysIterator(); iter.hasNext(); ) {
+			assertTrue(iterated.add(iter.next()));
+		}
+		assertEquals(reference.keySet(), iterated);
+		hashTable.clear();
+		assertTrue(hashTable.isEmpty());
+		assertNull(hashTable.get(1));
+	}
+
+	@Test
+	public void testConcurrentPutAndRemove() throws InterruptedException {
+		ConcurrentLinearProbingHashTable<Integer, Integer> hashTable = new ConcurrentLinearProbingHashTable<>();
+		int perThread = 20000;
+		runConcurrently(t -> {
+			for (int i = t * perThread; i < (t + 1) * perThread; ++i) {
+				hashTable.put(i, i);
+			}
+			for (int i = t * perThread; i < (t + 1) * perThread; i += 2) {
+				assertEquals(Integer.valueOf(i), hashTable.remove(i));
+			}
+		});
+		assertEquals(THREADS * perThread / 2, hashTable.size());
+		for (int i = 0; i < THREADS * perThread; ++i) {
+			if (i % 2 == 0) {
+				assertFalse(hashTable.containsKey(i));
+			} else {
+				assertEquals(Integer.valueOf(i), hashTable.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentMerge() throws InterruptedException {
+		ConcurrentLinearProbingHashTable<Integer, Integer> hashTable = new ConcurrentLinearProbingHashTable<>();
+		int keys = 3000;
+		int rounds = 20;
+		runConcurrently(t -> {
+			for (int r = 0; r < rounds; ++r) {
+				for (int i = 0; i < keys; ++i) {
+					hashTable.merge(i, 1, Integer::sum);
+				}
+			}
+		});
+		for (int i = 0; i < keys; ++i) {
+			assertEquals(Integer.valueOf(THREADS * rounds), hashTable.get(i));
+		}
+	}
+
+	@Test
+	public void testConcurrentPutIfAbsent() throws InterruptedException {
+		ConcurrentLinearProbingHashTable<Integer, Integer> hashTable = new ConcurrentLinearProbingHashTable<>();
+		AtomicInteger winners = new AtomicInteger();
+		int keys = 20000;
+		runConcurrently(t -> {
+			for (int i = 0; i < keys; ++i) {
+				if (hashTable.putIfAbsent(i, t) == null) {
+					winners.incrementAndGet();
+				}
+			}
+		});
+		assertEquals(keys, winners.get());
+		assertEquals(keys, hashTable.size());
+	}
+
+	@Test
+	public void testReplaceAbsentKeys() {
+		ConcurrentLinearProbingHashTable<Integer, Integer> hashTable = new ConcurrentLinearProbingHashTable<>();
+		hashTable.put(0, 0);
+		int capacity = hashTable.capacity();
+		for (int i = 1; i < 100000; ++i) {
+			assertNull(hashTable.replace(i, i));
+			assertFalse(hashTable.replace(i, i, -i));
+		}
+		assertEquals(capacity, hashTable.capacity());
+		assertEquals(1, hashTable.size());
+		assertEquals(Integer.valueOf(0), hashTable.replace(0, 1));
+		assertTrue(hashTable.replace(0, 1, 2));
+		assertEquals(Integer.valueOf(2), hashTable.get(0));
+	}
+
+	private void runConcurrently(ThreadBody body) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> failures = new ArrayList<>();
+		for (int t = 0; t < THREADS; ++t) {
+			int id = t;
+			Thread thread = new Thread(() -> {
+				try {
+					start.await();
+					body.run(id);
+				} catch (Throwable e) {
+					synchronized (failures) {
+						failures.add(e);
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(new ArrayList<Throwable>(), failures);
+	}
+
+	@FunctionalInterface
+	private interface ThreadBody {
+		void run(int thread) throws Exception;
+	}
+
+}
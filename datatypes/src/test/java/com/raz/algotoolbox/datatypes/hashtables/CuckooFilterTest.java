@@ -0,0 +1,81 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CuckooFilterTest {
+
+	@Test
+	public void testAddRemove() {
+		CuckooFilter filter = new CuckooFilter(10000);
+		Map<Integer, Integer> counts = new HashMap<>();
+		Random rand = new Random(13);
+		for (int i = 0; i < 100000; ++i) {
+			int key = rand.nextInt(20000);
+			if (rand.nextBoolean() && counts.getOrDefault(key, 0) == 0) {
+				assertTrue(filter.add(key));
+				counts.merge(key, 1, Integer::sum);
+			} else if (counts.getOrDefault(key, 0) > 0) {
+				assertTrue(filter.remove(key));
+				counts.merge(key, -1, Integer::sum);
+			}
+		}
+		int size = 0;
+		for (Map.Entry<Integer, Integer> e : counts.entrySet()) {
+			size += e.getValue();
+			if (e.getValue() > 0) {
+				assertTrue(filter.mightContain(e.getKey()));
+			}
+		}
+		assertEquals(size, filter.size());
+	}
+
+	@Test
+	public void testFalsePositiveRate() {
+		int n = 100000;
+		CuckooFilter filter = new CuckooFilter(n);
+		for (int i = 0; i < n; ++i) {
+			assertTrue(filter.add("key" + i));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < n; ++i) {
+			if (filter.mightContain("absent" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue("false positives: " + falsePositives, falsePositives < n * 0.001);
+		for (int i = 0; i < n; ++i) {
+			assertTrue(filter.remove("key" + i));
+		}
+		assertEquals(0, filter.size());
+		assertFalse(filter.mightContain("key0"));
+	}
+
+	@Test
+	public void testOverfilledFilter() {
+		CuckooFilter filter = new CuckooFilter(100);
+		int added = 0;
+		while (filter.add(added)) {
+			added++;
+		}
+		assertTrue(added >= 100);
+		for (int i = 0; i < added; ++i) {
+			assertTrue(filter.mightContain(i));
+		}
+		// a removal makes room for the victim, and then for another key
+		assertTrue(filter.remove(0));
+		assertTrue(filter.mightContain(added - 1));
+		for (int i = 1; i < added; ++i) {
+			assertTrue(filter.remove(i));
+		}
+		assertEquals(0, filter.size());
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CuckooHashTableTest {
+
+	@Test
+	public void testMatchesReference() {
+		CuckooHashTable<Integer, Integer> hashTable = new CuckooHashTable<>();
+		Map<Integer, Integer> reference = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 50000; ++i) {
+			int key = rand.nextInt(4000) - 2000;
+			if (rand.nextInt(3) != 0) {
+				assertEquals(reference.put(key, i), hashTable.put(key, i));
+			} else {
+				assertEquals(reference.remove(key), hashTable.remove(key));
+			}
+		}
+		assertEquals(reference.size(), hashTable.size());
+		for (int key = -2000; key < 2000; ++key) {
+			assertEquals(reference.containsKey(key), hashTable.containsKey(key));
+			assertEquals(reference.get(key), hashTable.get(key));
+		}
+		Map<Integer, Integer> iterated = new HashMap<>();
+		hashTable.forEach(iterated::put);
+		assertEquals(reference, iterated);
+	}
+
+	@Test
+	public void testHighLoad() {
+		CuckooHashTable<Integer, Integer> hashTable = new CuckooHashTable<>();
+		for (int i = 0; i < 100000; ++i) {
+			hashTable.put(i, i);
+		}
+		assertTrue(hashTable.size() > 0.45 * hashTable.capacity());
+		for (int i = 0; i < 100000; ++i) {
+			assertEquals(Integer.valueOf(i), hashTable.get(i));
+		}
+		assertNull(hashTable.get(100000));
+	}
+
+	@Test
+	public void testCollidingHashCodes() {
+		CuckooHashTable<CollidingKey, Integer> hashTable = new CuckooHashTable<>();
+		for (int i = 0; i < 200; ++i) {
+			hashTable.put(new CollidingKey(i), i); // far more than two buckets can hold, so most overflow
+		}
+		assertEquals(200, hashTable.size());
+		for (int i = 0; i < 200; i += 2) {
+			assertEquals(Integer.valueOf(i), hashTable.remove(new CollidingKey(i)));
+		}
+		for (int i = 0; i < 200; ++i) {
+			assertEquals(i % 2 == 1, hashTable.containsKey(new CollidingKey(i)));
+		}
+	}
+
+	@Test
+	public void testKeysIterator() {
+		CuckooHashTable<String, Integer> hashTable = new CuckooHashTable<>();
+		Set<String> keys = new HashSet<>();
+		for (int i = 0; i < 1000; ++i) {
+			hashTable.put("key" + i, i);
+			keys.add("key" + i);
+		}
+		Iterator<String> iterator = hashTable.keysIterator();
+		while (iterator.hasNext()) {
+			assertTrue(keys.remove(iterator.next()));
+		}
+		assertTrue(keys.isEmpty());
+		hashTable.clear();
+		assertTrue(hashTable.isEmpty());
+		assertFalse(hashTable.containsKey("key0"));
+	}
+
+	private static class CollidingKey {
+
+		private final int id;
+
+		private CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id % 3;
+		}
+	}
+
+}
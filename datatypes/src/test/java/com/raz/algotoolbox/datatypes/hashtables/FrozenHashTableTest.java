@@ -0,0 +1,101 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FrozenHashTableTest {
+
+	@Test
+	public void testLookups() {
+		for (int size : new int[] {0, 1, 2, 5, 100, 100000}) {
+			LinearProbingHashTable<String, Integer> table = new LinearProbingHashTable<>();
+			Map<String, Integer> reference = new HashMap<>();
+			Random rand = new Random(size);
+			for (int i = 0; i < size; ++i) {
+				String key = "key" + rand.nextInt();
+				table.put(key, i);
+				reference.put(key, i);
+			}
+			FrozenHashTable<String, Integer> frozen = table.freeze();
+			assertEquals(reference.size(), frozen.size());
+			reference.forEach((k, v) -> assertEquals(v, frozen.get(k)));
+			for (int i = 0; i < 1000; ++i) {
+				String key = "absent" + i;
+				assertNull(frozen.get(key));
+				assertFalse(frozen.containsKey(key));
+			}
+			Map<String, Integer> seen = new HashMap<>();
+			frozen.forEach(seen::put);
+			assertEquals(reference, seen);
+		}
+	}
+
+	@Test
+	public void testCollidingHashCodes() {
+		LinearProbingHashTable<CollidingKey, Integer> table = new LinearProbingHashTable<>();
+		for (int i = 0; i < 1000; ++i) {
+			table.put(new CollidingKey(i), i);
+		}
+		FrozenHashTable<CollidingKey, Integer> frozen = table.freeze();
+		assertEquals(1000, frozen.size());
+		for (int i = 0; i < 1000; ++i) {
+			assertEquals(Integer.valueOf(i), frozen.get(new CollidingKey(i)));
+		}
+		assertNull(frozen.get(new CollidingKey(1000)));
+		Set<CollidingKey> keys = new HashSet<>();
+		frozen.keysIterator().forEachRemaining(keys::add);
+		assertEquals(1000, keys.size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testImmutable() {
+		LinearProbingHashTable<Integer, Integer> table = new LinearProbingHashTable<>();
+		table.put(1, 1);
+		table.freeze().put(2, 2);
+	}
+
+	@Test
+	public void testSpliterator() {
+		LinearProbingHashTable<Integer, Integer> table = new LinearProbingHashTable<>();
+		for (int i = 0; i < 10000; ++i) {
+			table.put(i, i);
+		}
+		FrozenHashTable<Integer, Integer> frozen = table.freeze();
+		assertEquals(10000, frozen.keySpliterator().getExactSizeIfKnown());
+		assertEquals(Long.valueOf(49995000L), frozen.parallelReduce((k, v) -> (long) v, Long::sum));
+		assertTrue(frozen.containsValue(9999));
+	}
+
+	/**
+	 * Keys which share their hash codes in groups of ten.
+	 */
+	private static class CollidingKey {
+
+		private final int id;
+
+		private CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id / 10;
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntIntLinearProbingHashTableTest {
+
+	@Test
+	public void testRandomOperations() {
+		IntIntLinearProbingHashTable hashTable = new IntIntLinearProbingHashTable(-1);
+		Map<Integer, Integer> expected = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 10000; ++i) {
+			int key = rand.nextInt(2000) - 1000;
+			if (rand.nextInt(3) != 0) {
+				assertEquals((int) expected.getOrDefault(key, -1), hashTable.put(key, i));
+				expected.put(key, i);
+			} else {
+				assertEquals((int) expected.getOrDefault(key, -1), hashTable.remove(key));
+				expected.remove(key);
+			}
+			assertEquals(expected.size(), hashTable.size());
+		}
+		for (int key = -1000; key < 1000; ++key) {
+			assertEquals(expected.containsKey(key), hashTable.containsKey(key));
+			assertEquals((int) expected.getOrDefault(key, -1), hashTable.get(key));
+		}
+	}
+
+	@Test
+	public void testAddTo() {
+		IntIntLinearProbingHashTable hashTable = new IntIntLinearProbingHashTable();
+		for (int i = 0; i < 1000; ++i) {
+			hashTable.addTo(i % 10, 1);
+		}
+		assertEquals(10, hashTable.size());
+		for (int key = 0; key < 10; ++key) {
+			assertEquals(100, hashTable.get(key));
+		}
+		assertTrue(hashTable.containsValue(100));
+		assertFalse(hashTable.containsKey(10));
+		assertEquals(7, hashTable.getOrDefault(10, 7));
+	}
+
+}
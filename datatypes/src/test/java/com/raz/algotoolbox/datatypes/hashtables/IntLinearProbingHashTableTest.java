@@ -0,0 +1,70 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IntLinearProbingHashTableTest {
+
+	@Test
+	public void testRandomOperations() {
+		IntLinearProbingHashTable<String> hashTable = new IntLinearProbingHashTable<>();
+		Map<Integer, String> expected = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 10000; ++i) {
+			int key = rand.nextInt(2000) - 1000;
+			if (rand.nextInt(3) != 0) {
+				assertEquals(expected.put(key, "v" + i), hashTable.put(key, "v" + i));
+			} else {
+				assertEquals(expected.remove(key), hashTable.remove(key));
+			}
+			assertEquals(expected.size(), hashTable.size());
+		}
+		for (int key = -1000; key < 1000; ++key) {
+			assertEquals(expected.containsKey(key), hashTable.containsKey(key));
+			assertEquals(expected.get(key), hashTable.get(key));
+		}
+	}
+
+	@Test
+	public void testZeroKey() {
+		IntLinearProbingHashTable<String> hashTable = new IntLinearProbingHashTable<>();
+		assertFalse(hashTable.containsKey(0));
+		assertNull(hashTable.put(0, "zero"));
+		assertTrue(hashTable.containsKey(0));
+		assertTrue(hashTable.containsValue("zero"));
+		assertEquals(1, hashTable.size());
+		assertEquals("zero", hashTable.remove(0));
+		assertTrue(hashTable.isEmpty());
+	}
+
+	@Test
+	public void testKeysIteratorAndForEach() {
+		IntLinearProbingHashTable<Integer> hashTable = new IntLinearProbingHashTable<>();
+		Set<Integer> keys = new HashSet<>();
+		for (int i = -50; i <= 50; i += 5) {
+			hashTable.put(i, i * 2);
+			keys.add(i);
+		}
+		Set<Integer> retrieved = new HashSet<>();
+		for (PrimitiveIterator.OfInt iter = hashTable.keysIterator(); iter.hasNext(); ) {
+			retrieved.add(iter.nextInt());
+		}
+		assertEquals(keys, retrieved);
+		hashTable.forEachEntry((k, v) -> assertEquals(k * 2, (int) v));
+		hashTable.clear();
+		assertTrue(hashTable.isEmpty());
+		assertFalse(hashTable.keysIterator().hasNext());
+	}
+
+}
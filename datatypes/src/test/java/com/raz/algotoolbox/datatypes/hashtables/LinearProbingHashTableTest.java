@@ -3,9 +3,11 @@ package com.raz.algotoolbox.datatypes.hashtables;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class LinearProbingHashTableTest {
@@ -306,4 +308,515 @@ public class LinearProbingHashTableTest {
 		assertEquals(keys.size(), hashTable.size());
 	}
 
+	@Test
+	public void testResizeDoesNotRehashKeys() {
+		int bound = 1000;
+		LinearProbingHashTable<CountingKey, Integer> hashTable = new LinearProbingHashTable<>();
+		List<CountingKey> keys = new ArrayList<>();
+		for (int i = 0; i < bound; ++i) {
+			CountingKey key = new CountingKey(i);
+			keys.add(key);
+			hashTable.put(key, i);
+		}
+		for (int i = 0; i < bound; ++i) {
+			assertEquals(1, keys.get(i).hashCodeCalls);
+			assertEquals(Integer.valueOf(i), hashTable.get(new CountingKey(i)));
+		}
+		for (int i = 0; i < bound - 10; ++i) {
+			hashTable.remove(keys.get(i));
+		}
+		for (int i = bound - 10; i < bound; ++i) {
+			assertEquals(1, keys.get(i).hashCodeCalls);
+			assertTrue(hashTable.containsKey(keys.get(i)));
+		}
+	}
+
+	@Test
+	public void testRobinHood() {
+		LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT.withRobinHood(true);
+		assertMatchesReference(new LinearProbingHashTable<>(config), 20000);
+	}
+
+	@Test
+	public void testIncrementalResize() {
+		LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT.withIncrementalResize(true);
+		assertMatchesReference(new LinearProbingHashTable<>(config), 20000);
+		assertMatchesReference(new LinearProbingHashTable<>(config.withRobinHood(true)), 20000);
+	}
+
+	@Test
+	public void testMissFilter() {
+		for (LinearProbingHashTable.MissFilter filter : LinearProbingHashTable.MissFilter.values()) {
+			LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT.withMissFilter(filter);
+			assertMatchesReference(new LinearProbingHashTable<>(config), 20000);
+			assertMatchesReference(new LinearProbingHashTable<>(config.withRobinHood(true)), 20000);
+			LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+			for (int i = 0; i < 100000; ++i) {
+				hashTable.put(i, i);
+			}
+			for (int i = 0; i < 100000; i += 2) {
+				hashTable.remove(i);
+			}
+			for (int i = 0; i < 100000; ++i) {
+				assertEquals(i % 2 != 0, hashTable.containsKey(i));
+				assertFalse(hashTable.containsKey(-1 - i));
+			}
+			hashTable.clear();
+			assertFalse(hashTable.containsKey(1));
+		}
+	}
+
+	@Test
+	public void testProbing() {
+		for (LinearProbingHashTable.Probing probing : LinearProbingHashTable.Probing.values()) {
+			LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT.withProbing(probing);
+			assertMatchesReference(new LinearProbingHashTable<>(config), 20000);
+			assertMatchesReference(new LinearProbingHashTable<>(config.withIncrementalResize(true)), 20000);
+			assertMatchesReference(new LinearProbingHashTable<>(config.withLoadFactor(0.95f)), 20000);
+		}
+	}
+
+	@Test
+	public void testTombstoneCompaction() {
+		// sequential keys churning through a table of steady size, so removals leave tombstones all over
+		LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT
+				.withProbing(LinearProbingHashTable.Probing.QUADRATIC)
+				.withStatisticsEnabled(true);
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+		int window = 1000;
+		for (int i = 0; i < 200000; ++i) {
+			hashTable.put(i, i);
+			if (i >= window) {
+				assertEquals(Integer.valueOf(i - window), hashTable.remove(i - window));
+			}
+		}
+		assertEquals(window, hashTable.size());
+		assertEquals(2048, hashTable.capacity());
+		for (int i = 0; i < 200000 - window; i += 7) {
+			assertFalse(hashTable.containsKey(i));
+		}
+		for (int i = 200000 - window; i < 200000; ++i) {
+			assertEquals(Integer.valueOf(i), hashTable.get(i));
+		}
+		// tombstones are compacted away, so misses do not probe much of the table
+		long[] missProbeLengths = hashTable.statistics().getMissProbeLengths();
+		long longMisses = 0;
+		for (int bucket = 5; bucket < missProbeLengths.length; ++bucket) {
+			longMisses += missProbeLengths[bucket];
+		}
+		assertTrue(longMisses * 100 < hashTable.statistics().getMissCount());
+	}
+
+	@Test
+	public void testParallelBuild() {
+		int bound = 300000;
+		Map<Integer, Integer> m = new HashMap<>();
+		for (int i = 0; i < bound; ++i) {
+			m.put(i, -i);
+		}
+		for (LinearProbingHashTable.Config config : Arrays.asList(LinearProbingHashTable.Config.DEFAULT,
+				LinearProbingHashTable.Config.DEFAULT.withIncrementalResize(true),
+				LinearProbingHashTable.Config.DEFAULT.withMissFilter(LinearProbingHashTable.MissFilter.BLOOM))) {
+			LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+			hashTable.putAll(m);
+			assertEquals(bound, hashTable.size());
+			for (int i = 0; i < bound; ++i) {
+				assertEquals(Integer.valueOf(-i), hashTable.get(i));
+			}
+			assertFalse(hashTable.containsKey(bound));
+			// removals shift entries back, which relies on every entry being reachable from its home slot
+			for (int i = 0; i < bound; i += 2) {
+				assertEquals(Integer.valueOf(-i), hashTable.remove(i));
+			}
+			for (int i = 1; i < bound; i += 2) {
+				assertEquals(Integer.valueOf(-i), hashTable.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testParallelBuildWithEqualKeys() {
+		// the keys of an identity map may be equal to each other, and those sharing their hash code spill past ranges
+		int distinct = 1 << 17;
+		Map<String, Integer> m = new IdentityHashMap<>();
+		for (int i = 0; i < 2 * distinct; ++i) {
+			int n = i % distinct;
+			StringBuilder sb = new StringBuilder();
+			if (n % 1000 == 0) {
+				for (int bit = 0; bit < 10; ++bit) {
+					sb.append((n / 1000 & 1 << bit) == 0 ? "Aa" : "BB");
+				}
+			} else {
+				sb.append('k').append(n);
+			}
+			m.put(sb.toString(), i);
+		}
+		Map<String, Integer> expected = new HashMap<>();
+		m.forEach(expected::put);
+		LinearProbingHashTable<String, Integer> hashTable = new LinearProbingHashTable<>();
+		hashTable.putAll(m);
+		assertEquals(distinct, hashTable.size());
+		expected.forEach((k, v) -> assertEquals(v, hashTable.get(k)));
+		int[] count = {0};
+		hashTable.forEach((k, v) -> count[0]++);
+		assertEquals(distinct, count[0]);
+	}
+
+	@Test
+	public void testParallelRehash() {
+		// keys sharing their hash code form long clusters, which run across the ranges of slots filled in parallel
+		LinearProbingHashTable<Object, Integer> hashTable = new LinearProbingHashTable<>();
+		int bound = 400000;
+		List<Object> keys = new ArrayList<>();
+		for (int i = 0; i < bound; ++i) {
+			Object key = i;
+			if (i % 1000 == 0) {
+				// "Aa" and "BB" share their hash code, and so do all the strings made of ten of them
+				StringBuilder sb = new StringBuilder();
+				for (int bit = 0; bit < 10; ++bit) {
+					sb.append((i / 1000 & 1 << bit) == 0 ? "Aa" : "BB");
+				}
+				key = sb.toString();
+			}
+			keys.add(key);
+			hashTable.put(key, i);
+		}
+		assertEquals(bound, hashTable.size());
+		for (int i = 0; i < bound; ++i) {
+			assertEquals(Integer.valueOf(i), hashTable.get(keys.get(i)));
+		}
+		Set<Object> seen = new HashSet<>();
+		hashTable.forEach((k, v) -> assertTrue(seen.add(k)));
+		assertEquals(bound, seen.size());
+		for (int i = 0; i < bound; i += 3) {
+			hashTable.remove(keys.get(i));
+		}
+		for (int i = 0; i < bound; ++i) {
+			assertEquals(i % 3 != 0, hashTable.containsKey(keys.get(i)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRobinHoodWithQuadraticProbing() {
+		LinearProbingHashTable.Config.DEFAULT.withRobinHood(true).withProbing(LinearProbingHashTable.Probing.QUADRATIC);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissFilterWithIncrementalResize() {
+		LinearProbingHashTable.Config.DEFAULT.withIncrementalResize(true)
+				.withMissFilter(LinearProbingHashTable.MissFilter.CUCKOO);
+	}
+
+	@Test
+	public void testLookupsDuringIncrementalResize() {
+		int bound = 5000;
+		LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT.withIncrementalResize(true);
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+		for (int i = 0; i < bound; ++i) {
+			hashTable.put(i, i);
+			if (i % 97 == 0) {
+				for (int j = 0; j <= i; ++j) {
+					assertEquals(Integer.valueOf(j), hashTable.get(j));
+				}
+			}
+		}
+		for (int i = 0; i < bound; ++i) {
+			assertEquals(Integer.valueOf(i), hashTable.remove(i));
+			if (i % 97 == 0) {
+				assertEquals(bound - i - 1, hashTable.size());
+				for (int j = i + 1; j < bound; ++j) {
+					assertTrue(hashTable.containsKey(j));
+				}
+				assertFalse(hashTable.containsKey(i));
+			}
+		}
+		assertTrue(hashTable.isEmpty());
+	}
+
+	@Test
+	public void testGrowthPolicy() {
+		LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT
+				.withInitialCapacity(100)
+				.withLoadFactor(0.5f)
+				.withGrowthFactor(4)
+				.withShrinkThreshold(0.05f);
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+		assertEquals(128, hashTable.capacity());
+		for (int i = 0; i < 65; ++i) {
+			hashTable.put(i, i);
+		}
+		assertEquals(128, hashTable.capacity());
+		hashTable.put(65, 65);
+		assertEquals(512, hashTable.capacity());
+		for (int i = 0; i < 66; ++i) {
+			hashTable.remove(i);
+		}
+		assertEquals(128, hashTable.capacity()); // never below the initial capacity
+		assertMatchesReference(hashTable, 20000);
+	}
+
+	@Test
+	public void testEnsureCapacity() {
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>();
+		hashTable.ensureCapacity(1000);
+		int capacity = hashTable.capacity();
+		assertTrue(capacity * 0.8 >= 1000);
+		for (int i = 0; i < 1000; ++i) {
+			hashTable.put(i, i);
+		}
+		assertEquals(capacity, hashTable.capacity());
+		Map<Integer, Integer> m = new HashMap<>();
+		for (int i = 0; i < 10000; ++i) {
+			m.put(i, -i);
+		}
+		hashTable.putAll(m);
+		assertTrue(hashTable.capacity() * 0.8 >= 10000);
+		assertEquals(Integer.valueOf(-9999), hashTable.get(9999));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testShrinkThresholdAboveGrownLoad() {
+		LinearProbingHashTable.Config.DEFAULT.withShrinkThreshold(0.5f);
+	}
+
+	@Test
+	public void testStatistics() {
+		LinearProbingHashTable.Config config = LinearProbingHashTable.Config.DEFAULT.withStatisticsEnabled(true);
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+		for (int i = 0; i < 1000; ++i) {
+			hashTable.put(i, i);
+		}
+		for (int i = 0; i < 2000; ++i) {
+			hashTable.get(i); // 1000 hits and 1000 misses
+		}
+		for (int i = 0; i < 990; ++i) {
+			hashTable.remove(i); // 990 more hits
+		}
+		HashTableStatistics statistics = hashTable.statistics();
+		assertEquals(1990, statistics.getHitCount());
+		assertEquals(1000, statistics.getMissCount());
+		assertEquals(1990, Arrays.stream(statistics.getHitProbeLengths()).sum());
+		assertTrue(statistics.getHitProbeLengths()[0] > 0); // keys found in their home slot
+		assertTrue(statistics.getGrowCount() > 0);
+		assertTrue(statistics.getShrinkCount() > 0);
+		assertTrue(statistics.getLongestCluster() >= 1);
+		assertTrue(statistics.getShiftedEntries() > 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testStatisticsDisabled() {
+		new LinearProbingHashTable<Integer, Integer>().statistics();
+	}
+
+	@Test
+	public void testNegativeHashCodes() {
+		assertMatchesReference(new LinearProbingHashTable<>(), 20000);
+	}
+
+	@Test
+	public void testHighBitHashCodes() {
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>();
+		for (int i = 0; i < 2048; ++i) {
+			hashTable.put(i << 20, i);
+		}
+		hashTable.put(Integer.MIN_VALUE, -1);
+		for (int i = 1; i < 2048; ++i) {
+			assertEquals(Integer.valueOf(i), hashTable.get(i << 20));
+		}
+		assertEquals(Integer.valueOf(-1), hashTable.get(Integer.MIN_VALUE));
+		assertEquals(Integer.valueOf(-1), hashTable.remove(Integer.MIN_VALUE));
+		assertFalse(hashTable.containsKey(Integer.MIN_VALUE));
+	}
+
+	private void assertMatchesReference(LinearProbingHashTable<Integer, Integer> hashTable, int bound) {
+		Map<Integer, Integer> reference = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < bound; ++i) {
+			int key = rand.nextInt(4000) - 2000;
+			if (rand.nextInt(3) != 0) {
+				assertEquals(reference.put(key, i), hashTable.put(key, i));
+			} else {
+				assertEquals(reference.remove(key), hashTable.remove(key));
+			}
+		}
+		assertEquals(reference.size(), hashTable.size());
+		for (int key = -2000; key < 2000; ++key) {
+			assertEquals(reference.containsKey(key), hashTable.containsKey(key));
+			assertEquals(reference.get(key), hashTable.get(key));
+		}
+	}
+
+	@Test
+	public void testComputeOperations() {
+		for (LinearProbingHashTable.Config config : Arrays.asList(LinearProbingHashTable.Config.DEFAULT,
+				LinearProbingHashTable.Config.DEFAULT.withRobinHood(true),
+				LinearProbingHashTable.Config.DEFAULT.withIncrementalResize(true),
+				LinearProbingHashTable.Config.DEFAULT.withMissFilter(LinearProbingHashTable.MissFilter.BLOOM),
+				LinearProbingHashTable.Config.DEFAULT.withMissFilter(LinearProbingHashTable.MissFilter.CUCKOO),
+				LinearProbingHashTable.Config.DEFAULT.withProbing(LinearProbingHashTable.Probing.QUADRATIC))) {
+			LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+			Map<Integer, Integer> reference = new HashMap<>();
+			Random rand = new Random(3);
+			for (int i = 0; i < 50000; ++i) {
+				int key = rand.nextInt(2000);
+				int value = rand.nextInt(10);
+				switch (rand.nextInt(7)) {
+					case 0:
+						assertEquals(reference.putIfAbsent(key, value), hashTable.putIfAbsent(key, value));
+						break;
+					case 1:
+						assertEquals(reference.computeIfAbsent(key, k -> value == 0 ? null : value),
+								hashTable.computeIfAbsent(key, k -> value == 0 ? null : value));
+						break;
+					case 2:
+						assertEquals(reference.computeIfPresent(key, (k, v) -> v + value > 12 ? null : v + value),
+								hashTable.computeIfPresent(key, (k, v) -> v + value > 12 ? null : v + value));
+						break;
+					case 3:
+						assertEquals(reference.compute(key, (k, v) -> value == 0 ? null : value),
+								hashTable.compute(key, (k, v) -> value == 0 ? null : value));
+						break;
+					case 4:
+						assertEquals(reference.merge(key, value, (a, b) -> a + b > 15 ? null : a + b),
+								hashTable.merge(key, value, (a, b) -> a + b > 15 ? null : a + b));
+						break;
+					case 5:
+						assertEquals(reference.getOrDefault(key, -1), hashTable.getOrDefault(key, -1));
+						break;
+					default:
+						assertEquals(reference.remove(key), hashTable.remove(key));
+				}
+			}
+			assertEquals(reference.size(), hashTable.size());
+			reference.forEach((k, v) -> assertEquals(v, hashTable.get(k)));
+		}
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testComputeModifyingTable() {
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>();
+		hashTable.computeIfAbsent(1, k -> hashTable.put(2, 2));
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testComputePuttingAndRemoving() {
+		// the size is back to what it was, but the put may have taken the slot found for the computed key
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>();
+		hashTable.computeIfAbsent(1, k -> {
+			hashTable.put(2, 2);
+			return hashTable.remove(2);
+		});
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		// colliding keys form clusters which wrap around the end of the table
+		for (LinearProbingHashTable.Config config : Arrays.asList(LinearProbingHashTable.Config.DEFAULT,
+				LinearProbingHashTable.Config.DEFAULT.withRobinHood(true),
+				LinearProbingHashTable.Config.DEFAULT.withMissFilter(LinearProbingHashTable.MissFilter.CUCKOO),
+				LinearProbingHashTable.Config.DEFAULT.withProbing(LinearProbingHashTable.Probing.DOUBLE_HASHING))) {
+			LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>(config);
+			Set<Integer> reference = new HashSet<>();
+			Random rand = new Random(7);
+			for (int i = 0; i < 3000; ++i) {
+				int key = rand.nextInt(6000) << 12;
+				hashTable.put(key, key);
+				reference.add(key);
+			}
+			int distinct = reference.size();
+			Set<Integer> seen = new HashSet<>();
+			for (Iterator<Integer> it = hashTable.keysIterator(); it.hasNext(); ) {
+				Integer key = it.next();
+				assertTrue(seen.add(key));
+				if (key % 3 != 0) {
+					it.remove();
+					reference.remove(key);
+				}
+			}
+			assertEquals(distinct, seen.size());
+			assertEquals(reference.size(), hashTable.size());
+			for (Integer key : seen) {
+				assertEquals(reference.contains(key), hashTable.containsKey(key));
+			}
+		}
+	}
+
+	@Test
+	public void testSpliterator() {
+		LinearProbingHashTable<Integer, Integer> hashTable = new LinearProbingHashTable<>();
+		for (int i = 0; i < 100000; ++i) {
+			hashTable.put(i, i);
+		}
+		for (int i = 0; i < 100000; i += 3) {
+			hashTable.remove(i);
+		}
+		Spliterator<Integer> spliterator = hashTable.keySpliterator();
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+		assertEquals(hashTable.size(), spliterator.getExactSizeIfKnown());
+		Deque<Spliterator<Integer>> pending = new ArrayDeque<>(Collections.singleton(spliterator));
+		Set<Integer> seen = new HashSet<>();
+		int splits = 0;
+		while (!pending.isEmpty()) {
+			Spliterator<Integer> s = pending.pop();
+			long size = s.getExactSizeIfKnown();
+			Spliterator<Integer> lower = s.trySplit();
+			if (lower != null) {
+				splits++;
+				assertEquals(size, lower.getExactSizeIfKnown() + s.getExactSizeIfKnown());
+				pending.push(lower);
+				pending.push(s);
+			} else {
+				int[] count = {0};
+				s.forEachRemaining(k -> {
+					assertTrue(seen.add(k));
+					count[0]++;
+				});
+				assertEquals(size, count[0]);
+			}
+		}
+		assertTrue(splits > 0);
+		assertEquals(hashTable.size(), seen.size());
+	}
+
+	@Test
+	public void testParallelOperations() {
+		LinearProbingHashTable<Integer, Long> hashTable =
+				new LinearProbingHashTable<>(LinearProbingHashTable.Config.DEFAULT.withIncrementalResize(true));
+		long expectedSum = 0;
+		for (int i = 0; i < 200000; ++i) {
+			hashTable.put(i, (long) i);
+			expectedSum += i;
+		}
+		assertEquals(Long.valueOf(expectedSum), hashTable.parallelReduce((k, v) -> v, Long::sum));
+		assertEquals(Integer.valueOf(123456), hashTable.parallelSearch((k, v) -> v == 123456 ? k : null));
+		assertNull(hashTable.parallelSearch((k, v) -> v < 0 ? k : null));
+		LongAdder visited = new LongAdder();
+		hashTable.parallelForEach((k, v) -> visited.add(k));
+		assertEquals(expectedSum, visited.sum());
+		assertNull(new LinearProbingHashTable<Integer, Long>().parallelReduce((k, v) -> v, Long::sum));
+		hashTable.entrySpliterator().forEachRemaining(e -> e.setValue(0L));
+		assertEquals(Long.valueOf(0), hashTable.parallelReduce((k, v) -> v, Long::sum));
+	}
+
+	private static class CountingKey {
+
+		private final int id;
+		private int hashCodeCalls;
+
+		private CountingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CountingKey && ((CountingKey) o).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			hashCodeCalls++;
+			return id;
+		}
+	}
+
 }
@@ -0,0 +1,99 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class LinearProbingKeyTableTest {
+
+	@Test
+	public void testAddRemove() {
+		LinearProbingKeyTable<Integer> table = new LinearProbingKeyTable<>();
+		Set<Integer> reference = new HashSet<>();
+		Random rand = new Random(11);
+		for (int i = 0; i < 100000; ++i) {
+			int key = rand.nextInt(5000) << (rand.nextBoolean() ? 0 : 16);
+			if (rand.nextInt(3) != 0) {
+				assertEquals(reference.add(key), table.add(key));
+			} else {
+				assertEquals(reference.remove(key), table.remove(key));
+			}
+		}
+		assertEquals(reference.size(), table.size());
+		for (int key : reference) {
+			assertTrue(table.contains(key));
+		}
+		Set<Integer> seen = new HashSet<>();
+		table.forEach(seen::add);
+		assertEquals(reference, seen);
+	}
+
+	@Test
+	public void testKeySpliterator() {
+		LinearProbingKeyTable<Integer> table = new LinearProbingKeyTable<>();
+		for (int i = 0; i < 100000; ++i) {
+			table.add(i);
+		}
+		Spliterator<Integer> spliterator = table.keySpliterator();
+		assertEquals(table.size(), spliterator.estimateSize());
+		assertNotNull(spliterator.trySplit());
+		Set<Integer> seen = StreamSupport.stream(table.keySpliterator(), true).collect(Collectors.toSet());
+		assertEquals(table.size(), seen.size());
+		assertFalse(new LinearProbingKeyTable<Integer>().keySpliterator().tryAdvance(k -> { }));
+	}
+
+	@Test
+	public void testEmptyTableHoldsNoArray() {
+		LinearProbingKeyTable<Integer> table = new LinearProbingKeyTable<>();
+		assertEquals(0, table.capacity());
+		assertFalse(table.contains(1));
+		assertFalse(table.remove(1));
+		assertFalse(table.keysIterator().hasNext());
+		for (int i = 0; i < 100; ++i) {
+			table.add(i);
+		}
+		assertTrue(table.capacity() >= 128);
+		table.clear();
+		assertEquals(0, table.capacity());
+		assertTrue(table.isEmpty());
+	}
+
+	@Test
+	public void testIteratorRemoval() {
+		LinearProbingKeyTable<Integer> table = new LinearProbingKeyTable<>();
+		Set<Integer> reference = new HashSet<>();
+		Random rand = new Random(5);
+		for (int i = 0; i < 3000; ++i) {
+			int key = rand.nextInt(6000) << 12;
+			table.add(key);
+			reference.add(key);
+		}
+		int distinct = reference.size();
+		Set<Integer> seen = new HashSet<>();
+		for (Iterator<Integer> it = table.keysIterator(); it.hasNext(); ) {
+			Integer key = it.next();
+			assertTrue(seen.add(key));
+			if (key % 3 != 0) {
+				it.remove();
+				reference.remove(key);
+			}
+		}
+		assertEquals(distinct, seen.size());
+		assertEquals(reference.size(), table.size());
+		for (Integer key : seen) {
+			assertEquals(reference.contains(key), table.contains(key));
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongLinearProbingHashTableTest {
+
+	@Test
+	public void testRandomOperations() {
+		LongLinearProbingHashTable<String> hashTable = new LongLinearProbingHashTable<>();
+		Map<Long, String> expected = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 10000; ++i) {
+			long key = rand.nextInt(2000) - 1000 + ((long) rand.nextInt(4) << 40);
+			if (rand.nextInt(3) != 0) {
+				assertEquals(expected.put(key, "v" + i), hashTable.put(key, "v" + i));
+			} else {
+				assertEquals(expected.remove(key), hashTable.remove(key));
+			}
+			assertEquals(expected.size(), hashTable.size());
+		}
+		for (long key : expected.keySet()) {
+			assertEquals(expected.containsKey(key), hashTable.containsKey(key));
+			assertEquals(expected.get(key), hashTable.get(key));
+		}
+	}
+
+	@Test
+	public void testZeroKey() {
+		LongLinearProbingHashTable<String> hashTable = new LongLinearProbingHashTable<>();
+		assertFalse(hashTable.containsKey(0));
+		assertNull(hashTable.put(0, "zero"));
+		assertTrue(hashTable.containsKey(0));
+		assertTrue(hashTable.containsValue("zero"));
+		assertEquals(1, hashTable.size());
+		assertEquals("zero", hashTable.remove(0));
+		assertTrue(hashTable.isEmpty());
+	}
+
+	@Test
+	public void testKeysIteratorAndForEach() {
+		LongLinearProbingHashTable<Long> hashTable = new LongLinearProbingHashTable<>();
+		Set<Long> keys = new HashSet<>();
+		for (long i = -50; i <= 50; i += 5) {
+			hashTable.put(i, i * 2);
+			keys.add(i);
+		}
+		Set<Long> retrieved = new HashSet<>();
+		for (PrimitiveIterator.OfLong iter = hashTable.keysIterator(); iter.hasNext(); ) {
+			retrieved.add(iter.nextLong());
+		}
+		assertEquals(keys, retrieved);
+		hashTable.forEachEntry((k, v) -> assertEquals(k * 2, (long) v));
+		hashTable.clear();
+		assertTrue(hashTable.isEmpty());
+		assertFalse(hashTable.keysIterator().hasNext());
+	}
+
+}
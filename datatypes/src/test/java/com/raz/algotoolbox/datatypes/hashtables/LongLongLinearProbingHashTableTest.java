@@ -0,0 +1,52 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongLongLinearProbingHashTableTest {
+
+	@Test
+	public void testRandomOperations() {
+		LongLongLinearProbingHashTable hashTable = new LongLongLinearProbingHashTable(-1);
+		Map<Long, Long> expected = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 10000; ++i) {
+			long key = rand.nextInt(2000) - 1000 + ((long) rand.nextInt(4) << 40);
+			if (rand.nextInt(3) != 0) {
+				assertEquals((long) expected.getOrDefault(key, -1L), hashTable.put(key, i));
+				expected.put(key, (long) i);
+			} else {
+				assertEquals((long) expected.getOrDefault(key, -1L), hashTable.remove(key));
+				expected.remove(key);
+			}
+			assertEquals(expected.size(), hashTable.size());
+		}
+		for (long key : expected.keySet()) {
+			assertEquals(expected.containsKey(key), hashTable.containsKey(key));
+			assertEquals((long) expected.getOrDefault(key, -1L), hashTable.get(key));
+		}
+	}
+
+	@Test
+	public void testAddTo() {
+		LongLongLinearProbingHashTable hashTable = new LongLongLinearProbingHashTable();
+		for (int i = 0; i < 1000; ++i) {
+			hashTable.addTo(i % 10, 1);
+		}
+		assertEquals(10, hashTable.size());
+		for (long key = 0; key < 10; ++key) {
+			assertEquals(100, hashTable.get(key));
+		}
+		assertTrue(hashTable.containsValue(100));
+		assertFalse(hashTable.containsKey(10));
+		assertEquals(7, hashTable.getOrDefault(10, 7));
+	}
+
+}
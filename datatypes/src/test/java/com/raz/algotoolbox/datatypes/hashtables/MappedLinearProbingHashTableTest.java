@@ -0,0 +1,103 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MappedLinearProbingHashTableTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLinear() throws IOException {
+		assertReopensAsWritten(LinearProbingHashTable.Config.DEFAULT, MappedFile.SEGMENT_SHIFT);
+	}
+
+	@Test
+	public void testRobinHood() throws IOException {
+		assertReopensAsWritten(LinearProbingHashTable.Config.DEFAULT.withRobinHood(true), MappedFile.SEGMENT_SHIFT);
+	}
+
+	@Test
+	public void testManySegments() throws IOException {
+		// 64 bytes per mapped buffer, so many records and slots straddle two buffers
+		assertReopensAsWritten(LinearProbingHashTable.Config.DEFAULT, 6);
+	}
+
+	@Test
+	public void testNullValue() throws IOException {
+		LinearProbingHashTable<String, String> hashTable = new LinearProbingHashTable<>();
+		hashTable.put("key", null);
+		Path path = folder.newFile().toPath();
+		hashTable.writeTo(path, ByteCodec.utf8(), ByteCodec.utf8());
+		try (MappedLinearProbingHashTable<String, String> mapped =
+				MappedLinearProbingHashTable.open(path, ByteCodec.utf8(), ByteCodec.utf8())) {
+			assertTrue(mapped.containsKey("key"));
+			assertNull(mapped.get("key"));
+			assertFalse(mapped.containsKey("other"));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosed() throws IOException {
+		LinearProbingHashTable<Long, Long> hashTable = new LinearProbingHashTable<>();
+		hashTable.put(1L, 1L);
+		Path path = folder.newFile().toPath();
+		hashTable.writeTo(path, ByteCodec.longs(), ByteCodec.longs());
+		MappedLinearProbingHashTable<Long, Long> mapped =
+				MappedLinearProbingHashTable.open(path, ByteCodec.longs(), ByteCodec.longs());
+		mapped.close();
+		mapped.get(1L);
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotAHashTableFile() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, new byte[64]);
+		MappedLinearProbingHashTable.open(path, ByteCodec.longs(), ByteCodec.longs());
+	}
+
+	private void assertReopensAsWritten(LinearProbingHashTable.Config config, int segmentShift) throws IOException {
+		LinearProbingHashTable<String, Integer> hashTable = new LinearProbingHashTable<>(config);
+		Map<String, Integer> reference = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 5000; ++i) {
+			String key = "key" + rand.nextInt(2000);
+			if (rand.nextInt(4) != 0) {
+				hashTable.put(key, i);
+				reference.put(key, i);
+			} else {
+				hashTable.remove(key);
+				reference.remove(key);
+			}
+		}
+		Path path = folder.newFile().toPath();
+		hashTable.writeTo(path, ByteCodec.utf8(), ByteCodec.integers());
+		try (MappedLinearProbingHashTable<String, Integer> mapped =
+				MappedLinearProbingHashTable.open(path, ByteCodec.utf8(), ByteCodec.integers(), segmentShift)) {
+			assertEquals(reference.size(), mapped.size());
+			for (int i = 0; i < 2000; ++i) {
+				String key = "key" + i;
+				assertEquals(reference.containsKey(key), mapped.containsKey(key));
+				assertEquals(reference.get(key), mapped.get(key));
+			}
+			Map<String, Integer> iterated = new HashMap<>();
+			mapped.forEach(iterated::put);
+			assertEquals(reference, iterated);
+		}
+	}
+
+}
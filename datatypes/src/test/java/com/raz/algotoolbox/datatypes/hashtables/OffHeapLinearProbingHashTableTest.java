@@ -0,0 +1,97 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapLinearProbingHashTableTest {
+
+	@Test
+	public void testMatchesReference() {
+		try (OffHeapLinearProbingHashTable hashTable = new OffHeapLinearProbingHashTable(8, 4)) {
+			assertMatchesReference(hashTable);
+		}
+	}
+
+	@Test
+	public void testManySegments() {
+		// 16 bytes per slot and at most 1 KB per buffer, so the table is split over many buffers
+		try (OffHeapLinearProbingHashTable hashTable = new OffHeapLinearProbingHashTable(8, 4, 16, 1024)) {
+			assertMatchesReference(hashTable);
+			assertTrue(hashTable.capacity() * 16 > 1024);
+		}
+	}
+
+	@Test
+	public void testGetWithoutAllocating() {
+		try (OffHeapLinearProbingHashTable hashTable = new OffHeapLinearProbingHashTable(8, 4)) {
+			assertTrue(hashTable.put(key(42), value(7)));
+			assertFalse(hashTable.put(key(42), value(8)));
+			byte[] value = new byte[4];
+			assertTrue(hashTable.get(key(42), value));
+			assertArrayEquals(value(8), value);
+			assertFalse(hashTable.get(key(43), value));
+			assertNull(hashTable.get(key(43)));
+			hashTable.clear();
+			assertTrue(hashTable.isEmpty());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosed() {
+		OffHeapLinearProbingHashTable hashTable = new OffHeapLinearProbingHashTable(8, 4);
+		hashTable.put(key(1), value(1));
+		hashTable.close();
+		hashTable.containsKey(key(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongKeyWidth() {
+		try (OffHeapLinearProbingHashTable hashTable = new OffHeapLinearProbingHashTable(8, 4)) {
+			hashTable.put(new byte[4], value(1));
+		}
+	}
+
+	private void assertMatchesReference(OffHeapLinearProbingHashTable hashTable) {
+		Map<Long, Integer> reference = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 20000; ++i) {
+			long key = rand.nextInt(3000);
+			if (rand.nextInt(3) != 0) {
+				assertEquals(reference.put(key, i) == null, hashTable.put(key(key), value(i)));
+			} else {
+				assertEquals(reference.remove(key) != null, hashTable.remove(key(key)));
+			}
+		}
+		assertEquals(reference.size(), hashTable.size());
+		for (long key = 0; key < 3000; ++key) {
+			byte[] value = hashTable.get(key(key));
+			if (reference.containsKey(key)) {
+				assertArrayEquals(value(reference.get(key)), value);
+			} else {
+				assertNull(value);
+			}
+		}
+		Map<Long, Integer> iterated = new HashMap<>();
+		hashTable.forEach((k, v) -> iterated.put(ByteBuffer.wrap(k).getLong(), ByteBuffer.wrap(v).getInt()));
+		assertEquals(reference, iterated);
+	}
+
+	private static byte[] key(long key) {
+		return ByteBuffer.allocate(8).putLong(key).array();
+	}
+
+	private static byte[] value(int value) {
+		return ByteBuffer.allocate(4).putInt(value).array();
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.raz.algotoolbox.datatypes.hashtables;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SwissHashTableTest {
+
+	@Test
+	public void testMatchesReference() {
+		SwissHashTable<Integer, Integer> hashTable = new SwissHashTable<>();
+		Map<Integer, Integer> reference = new HashMap<>();
+		Random rand = new Random();
+		for (int i = 0; i < 50000; ++i) {
+			int key = rand.nextInt(4000) - 2000;
+			if (rand.nextInt(3) != 0) {
+				assertEquals(reference.put(key, i), hashTable.put(key, i));
+			} else {
+				assertEquals(reference.remove(key), hashTable.remove(key));
+			}
+		}
+		assertEquals(reference.size(), hashTable.size());
+		for (int key = -2000; key < 2000; ++key) {
+			assertEquals(reference.containsKey(key), hashTable.containsKey(key));
+			assertEquals(reference.get(key), hashTable.get(key));
+		}
+		Map<Integer, Integer> iterated = new HashMap<>();
+		hashTable.forEach(iterated::put);
+		assertEquals(reference, iterated);
+	}
+
+	@Test
+	public void testChurnDoesNotGrow() {
+		SwissHashTable<Integer, Integer> hashTable = new SwissHashTable<>();
+		for (int i = 0; i < 60; ++i) {
+			hashTable.put(i, i);
+		}
+		int capacity = hashTable.capacity();
+		for (int i = 60; i < 100000; ++i) {
+			hashTable.remove(i - 60);
+			hashTable.put(i, i);
+		}
+		assertEquals(60, hashTable.size());
+		assertEquals(capacity, hashTable.capacity()); // the deleted markers are purged in place
+		for (int i = 99940; i < 100000; ++i) {
+			assertEquals(Integer.valueOf(i), hashTable.get(i));
+		}
+		assertNull(hashTable.get(0));
+	}
+
+	@Test
+	public void testCollidingHashCodes() {
+		SwissHashTable<CollidingKey, Integer> hashTable = new SwissHashTable<>();
+		for (int i = 0; i < 200; ++i) {
+			hashTable.put(new CollidingKey(i), i);
+		}
+		for (int i = 0; i < 200; i += 2) {
+			assertEquals(Integer.valueOf(i), hashTable.remove(new CollidingKey(i)));
+		}
+		for (int i = 0; i < 200; ++i) {
+			assertEquals(i % 2 == 1, hashTable.containsKey(new CollidingKey(i)));
+		}
+	}
+
+	@Test
+	public void testKeysIterator() {
+		SwissHashTable<String, Integer> hashTable = new SwissHashTable<>();
+		Set<String> keys = new HashSet<>();
+		for (int i = 0; i < 1000; ++i) {
+			hashTable.put("key" + i, i);
+			keys.add("key" + i);
+		}
+		Iterator<String> iterator = hashTable.keysIterator();
+		while (iterator.hasNext()) {
+			assertTrue(keys.remove(iterator.next()));
+		}
+		assertTrue(keys.isEmpty());
+		hashTable.clear();
+		assertTrue(hashTable.isEmpty());
+		assertFalse(hashTable.containsKey("key0"));
+	}
+
+	private static class CollidingKey {
+
+		private final int id;
+
+		private CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id % 3;
+		}
+	}
+
+}
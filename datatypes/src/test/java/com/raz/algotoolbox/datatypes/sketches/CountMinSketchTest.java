@@ -0,0 +1,67 @@
+package com.raz.algotoolbox.datatypes.sketches;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CountMinSketchTest {
+
+	@Test
+	public void testEstimates() {
+		CountMinSketch<Integer> sketch = new CountMinSketch<>(0.001, 0.99);
+		Map<Integer, Long> counts = new HashMap<>();
+		Random rand = new Random(17);
+		for (int i = 0; i < 200000; ++i) {
+			int item = (int) Math.abs(rand.nextGaussian() * 1000);
+			sketch.add(item);
+			counts.merge(item, 1L, Long::sum);
+		}
+		assertEquals(200000, sketch.totalCount());
+		long bound = (long) (0.001 * sketch.totalCount());
+		int outliers = 0;
+		for (Map.Entry<Integer, Long> e : counts.entrySet()) {
+			long estimate = sketch.estimateCount(e.getKey());
+			assertTrue(estimate >= e.getValue());
+			if (estimate > e.getValue() + bound) {
+				outliers++;
+			}
+		}
+		assertTrue(outliers <= counts.size() / 100);
+	}
+
+	@Test
+	public void testMerge() {
+		CountMinSketch<String> left = new CountMinSketch<>(0.01, 0.9);
+		CountMinSketch<String> right = new CountMinSketch<>(0.01, 0.9);
+		left.add("a", 5);
+		right.add("a", 7);
+		right.add("b");
+		left.merge(right);
+		assertEquals(13, left.totalCount());
+		assertTrue(left.estimateCount("a") >= 12);
+		assertTrue(left.estimateCount("b") >= 1);
+	}
+
+	@Test
+	public void testParallelCollector() {
+		CountMinSketch<Integer> sketch = IntStream.range(0, 300000).parallel().map(i -> i % 1000).boxed()
+				.collect(CountMinSketch.collector(0.0001, 0.99));
+		assertEquals(300000, sketch.totalCount());
+		for (int i = 0; i < 1000; ++i) {
+			assertTrue(sketch.estimateCount(i) >= 300);
+			assertTrue(sketch.estimateCount(i) <= 300 + 0.0001 * 300000 * 3);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeDifferentDimensions() {
+		new CountMinSketch<Integer>(0.01, 0.9).merge(new CountMinSketch<>(0.001, 0.9));
+	}
+
+}
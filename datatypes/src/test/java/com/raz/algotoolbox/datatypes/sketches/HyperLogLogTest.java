@@ -0,0 +1,65 @@
+package com.raz.algotoolbox.datatypes.sketches;
+
+import org.junit.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HyperLogLogTest {
+
+	@Test
+	public void testCardinality() {
+		for (int n : new int[] {0, 10, 1000, 100000, 1000000}) {
+			HyperLogLog<Integer> sketch = new HyperLogLog<>(14);
+			for (int i = 0; i < n; ++i) {
+				sketch.add(i);
+				sketch.add(i);
+			}
+			assertEquals(n, sketch.cardinality(), n * 4 * sketch.standardError() + 1);
+		}
+	}
+
+	@Test
+	public void testAddReportsChange() {
+		HyperLogLog<String> sketch = new HyperLogLog<>(10);
+		assertTrue(sketch.isEmpty());
+		assertTrue(sketch.add("a"));
+		assertFalse(sketch.add("a"));
+		assertFalse(sketch.isEmpty());
+		sketch.clear();
+		assertEquals(0, sketch.cardinality());
+	}
+
+	@Test
+	public void testMerge() {
+		HyperLogLog<Integer> left = new HyperLogLog<>(12);
+		HyperLogLog<Integer> right = new HyperLogLog<>(12);
+		HyperLogLog<Integer> union = new HyperLogLog<>(12);
+		for (int i = 0; i < 60000; ++i) {
+			left.add(i);
+			union.add(i);
+		}
+		for (int i = 30000; i < 90000; ++i) {
+			right.add(i);
+			union.add(i);
+		}
+		left.merge(right);
+		assertEquals(union.cardinality(), left.cardinality());
+	}
+
+	@Test
+	public void testParallelCollector() {
+		HyperLogLog<Integer> sketch = IntStream.range(0, 500000).parallel().map(i -> i % 200000).boxed()
+				.collect(HyperLogLog.collector(14));
+		assertEquals(200000, sketch.cardinality(), 200000 * 4 * sketch.standardError());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMergeDifferentPrecisions() {
+		new HyperLogLog<Integer>(10).merge(new HyperLogLog<>(11));
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.raz.algotoolbox.datatypes.sketches;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpaceSavingTest {
+
+	@Test
+	public void testHeavyHitters() {
+		SpaceSaving<Integer> summary = new SpaceSaving<>(100);
+		Map<Integer, Long> counts = new HashMap<>();
+		Random rand = new Random(23);
+		for (int i = 0; i < 200000; ++i) {
+			// a few heavy items in a long tail
+			int item = rand.nextInt(10) == 0 ? rand.nextInt(5) : 5 + rand.nextInt(100000);
+			summary.add(item);
+			counts.merge(item, 1L, Long::sum);
+		}
+		assertEquals(100, summary.size());
+		assertEquals(200000, summary.totalCount());
+		List<SpaceSaving.Counter<Integer>> top = summary.topK(5);
+		assertEquals(5, top.size());
+		for (SpaceSaving.Counter<Integer> counter : top) {
+			assertTrue(counter.getItem() < 5);
+			long actual = counts.get(counter.getItem());
+			assertTrue(counter.getCount() >= actual);
+			assertTrue(counter.getGuaranteedCount() <= actual);
+		}
+		for (int i = 1; i < top.size(); ++i) {
+			assertTrue(top.get(i - 1).getCount() >= top.get(i).getCount());
+		}
+		for (Map.Entry<Integer, Long> e : counts.entrySet()) {
+			assertTrue(summary.estimateCount(e.getKey()) >= e.getValue());
+		}
+	}
+
+	@Test
+	public void testExactBelowCapacity() {
+		SpaceSaving<String> summary = new SpaceSaving<>(10);
+		summary.add("a", 3);
+		summary.add("b");
+		summary.add("a");
+		assertEquals(4, summary.estimateCount("a"));
+		assertEquals(1, summary.estimateCount("b"));
+		assertEquals(0, summary.estimateCount("c"));
+		assertEquals("a", summary.topK(1).get(0).getItem());
+		assertEquals(0, summary.topK(1).get(0).getError());
+	}
+
+	@Test
+	public void testMerge() {
+		SpaceSaving<Integer> left = new SpaceSaving<>(20);
+		SpaceSaving<Integer> right = new SpaceSaving<>(20);
+		int ones = 0;
+		for (int i = 0; i < 10000; ++i) {
+			int l = i % 7 == 0 ? 1 : 100 + i;
+			int r = i % 5 == 0 ? 2 : i % 11 == 0 ? 1 : 20000 + i;
+			left.add(l);
+			right.add(r);
+			ones += (l == 1 ? 1 : 0) + (r == 1 ? 1 : 0);
+		}
+		left.merge(right);
+		assertEquals(20000, left.totalCount());
+		assertEquals(20, left.size());
+		List<SpaceSaving.Counter<Integer>> top = left.topK(2);
+		assertEquals(Integer.valueOf(2), top.get(0).getItem());
+		assertEquals(Integer.valueOf(1), top.get(1).getItem());
+		assertTrue(top.get(1).getCount() >= ones);
+		assertTrue(top.get(1).getGuaranteedCount() <= ones);
+	}
+
+	@Test
+	public void testParallelCollector() {
+		SpaceSaving<Integer> summary = IntStream.range(0, 400000).parallel().map(i -> i % 4 == 0 ? i % 3 : i).boxed()
+				.collect(SpaceSaving.collector(50));
+		assertEquals(400000, summary.totalCount());
+		List<SpaceSaving.Counter<Integer>> top = summary.topK(3);
+		for (SpaceSaving.Counter<Integer> counter : top) {
+			assertTrue(counter.getItem() < 3);
+			assertTrue(counter.getCount() >= 100000 / 3);
+		}
+	}
+
+}
@@ -0,0 +1,8 @@
+package com.raz.algotoolbox.internal;
+
+@FunctionalInterface
+public interface IntIntConsumer {
+
+	void accept(int key, int value);
+
+}
@@ -0,0 +1,8 @@
+package com.raz.algotoolbox.internal;
+
+@FunctionalInterface
+public interface IntObjConsumer<T> {
+
+	void accept(int key, T value);
+
+}
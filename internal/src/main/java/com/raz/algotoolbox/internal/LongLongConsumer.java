@@ -0,0 +1,8 @@
+package com.raz.algotoolbox.internal;
+
+@FunctionalInterface
+public interface LongLongConsumer {
+
+	void accept(long key, long value);
+
+}
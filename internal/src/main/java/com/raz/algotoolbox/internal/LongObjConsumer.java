@@ -0,0 +1,8 @@
+package com.raz.algotoolbox.internal;
+
+@FunctionalInterface
+public interface LongObjConsumer<T> {
+
+	void accept(long key, T value);
+
+}